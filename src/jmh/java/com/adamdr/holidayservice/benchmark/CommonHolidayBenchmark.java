@@ -0,0 +1,90 @@
+package com.adamdr.holidayservice.benchmark;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the original grouping/min/toMap search for the next common holiday with the per-year bitset calendars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommonHolidayBenchmark {
+
+    private static final int YEAR = 2023;
+
+    @Param({"10", "30", "100"})
+    int holidaysPerCountry;
+
+    @Param({"2", "5", "20"})
+    int countries;
+
+    private LocalDate date;
+    private List<List<PublicHolidayDto>> publicHolidays;
+    private List<HolidayCalendar> holidayCalendars;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        date = LocalDate.of(YEAR, 1, 15);
+        publicHolidays = new ArrayList<>(countries);
+        holidayCalendars = new ArrayList<>(countries);
+        for (int country = 0; country < countries; country++) {
+            String countryCode = String.valueOf((char) ('A' + country / 26)) + (char) ('A' + country % 26);
+            List<PublicHolidayDto> countryHolidays = new ArrayList<>(holidaysPerCountry);
+            countryHolidays.add(new PublicHolidayDto(LocalDate.of(YEAR, 12, 25), "Christmas", "Christmas", countryCode));
+            while (countryHolidays.size() < holidaysPerCountry) {
+                LocalDate holiday = LocalDate.ofYearDay(YEAR, 1 + random.nextInt(365));
+                countryHolidays.add(new PublicHolidayDto(holiday, countryCode + holiday, countryCode + holiday, countryCode));
+            }
+            publicHolidays.add(countryHolidays);
+            holidayCalendars.add(HolidayCalendar.of(countryCode, YEAR, countryHolidays));
+        }
+    }
+
+    @Benchmark
+    public Optional<Map<String, PublicHolidayDto>> groupingByDate() {
+        return publicHolidays.stream()
+                .flatMap(List::stream)
+                .filter(publicHolidayDto -> publicHolidayDto.date().isAfter(date))
+                .collect(Collectors.groupingBy(PublicHolidayDto::date))
+                .entrySet().stream()
+                .filter(localDateListEntry -> localDateListEntry.getValue().size() == countries)
+                .min(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .map(publicHolidayDtos -> publicHolidayDtos.stream()
+                        .collect(Collectors.toMap(PublicHolidayDto::countryCode, Function.identity(), (first, second) -> first)));
+    }
+
+    @Benchmark
+    public int bitsetCalendars() {
+        return HolidayCalendar.nextCommonHoliday(holidayCalendars, date.getDayOfYear() + 1);
+    }
+
+    @Benchmark
+    public int bitsetCalendarsIncludingBuild() {
+        List<HolidayCalendar> calendars = new ArrayList<>(countries);
+        for (List<PublicHolidayDto> countryHolidays : publicHolidays) {
+            calendars.add(HolidayCalendar.of(countryHolidays.get(0).countryCode(), YEAR, countryHolidays));
+        }
+        return HolidayCalendar.nextCommonHoliday(calendars, date.getDayOfYear() + 1);
+    }
+}
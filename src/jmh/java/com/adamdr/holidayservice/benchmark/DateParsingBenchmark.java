@@ -0,0 +1,60 @@
+package com.adamdr.holidayservice.benchmark;
+
+import com.adamdr.holidayservice.web.LocalDateParameterConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.format.Parser;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.datetime.standard.Jsr310DateTimeFormatAnnotationFormatterFactory;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former {@code @DateTimeFormat} binding with fallback patterns against {@link LocalDateParameterConverter}.
+ * Inputs that only match a later fallback pattern pay for every failed attempt before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateParsingBenchmark {
+
+    @Param({"2023-05-01", "05/01/2023", "01.05.2023", "2023/05/01"})
+    String date;
+
+    private Parser<?> dateTimeFormatParser;
+    private final LocalDateParameterConverter localDateParameterConverter =
+            new LocalDateParameterConverter(LocalDateParameterConverter.AmbiguousDatePolicy.MONTH_FIRST);
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        DateTimeFormat dateTimeFormat = DateParsingBenchmark.class
+                .getDeclaredMethod("annotatedParameter", LocalDate.class)
+                .getParameters()[0]
+                .getAnnotation(DateTimeFormat.class);
+        dateTimeFormatParser = new Jsr310DateTimeFormatAnnotationFormatterFactory().getParser(dateTimeFormat, LocalDate.class);
+    }
+
+    @Benchmark
+    public Object dateTimeFormatWithFallbackPatterns() throws ParseException {
+        return dateTimeFormatParser.parse(date, Locale.ROOT);
+    }
+
+    @Benchmark
+    public LocalDate localDateParameterConverter() {
+        return localDateParameterConverter.convert(date);
+    }
+
+    @SuppressWarnings("unused")
+    private static void annotatedParameter(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE,
+            fallbackPatterns = {"MM/dd/yyyy", "dd/MM/yyyy", "dd.MM.yyyy", "yyyy/MM/dd"}) LocalDate date) {
+    }
+}
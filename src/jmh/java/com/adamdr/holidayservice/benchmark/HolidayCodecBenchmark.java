@@ -0,0 +1,69 @@
+package com.adamdr.holidayservice.benchmark;
+
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
+import com.adamdr.holidayservice.dto.HolidayDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the encoding cost of the JSON, CBOR and Smile response formats with the date settings the application uses.
+ * Payload sizes are covered by {@code CodecConfigTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HolidayCodecBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private final HolidayDto holiday = new HolidayDto(LocalDate.of(2022, 4, 18), "Drugi Dzień Wielkanocy", "Easter Monday");
+    private final List<HolidayBatchResultDto> batch = LongStream.range(0, 100)
+            .mapToObj(index -> index % 10 == 0
+                    ? new HolidayBatchResultDto(index, null, "Country codes validation failed")
+                    : new HolidayBatchResultDto(index, holiday, null))
+            .toList();
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder objectMapperBuilder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> objectMapperBuilder.build();
+            case "cbor" -> objectMapperBuilder.factory(new CBORFactory()).build();
+            case "smile" -> objectMapperBuilder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        writer = objectMapper.writer();
+    }
+
+    @Benchmark
+    public byte[] encodeHoliday() throws JsonProcessingException {
+        return writer.writeValueAsBytes(holiday);
+    }
+
+    @Benchmark
+    public byte[] encodeBatch() throws JsonProcessingException {
+        return writer.writeValueAsBytes(batch);
+    }
+}
@@ -0,0 +1,85 @@
+package com.adamdr.holidayservice.benchmark;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.http.HolidayCalendarDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a Public Holiday API payload, unused fields included, by data binding into {@link PublicHolidayDto} and by
+ * the streaming {@link HolidayCalendarDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HolidayJsonDecodingBenchmark {
+
+    private static final HolidayCalendarKey KEY = new HolidayCalendarKey("PL", 2023);
+
+    @Param({"15", "50", "200"})
+    int holidays;
+
+    @Param({"8192"})
+    int bufferSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final HolidayCalendarDecoder holidayCalendarDecoder = new HolidayCalendarDecoder(8192, 1024 * 1024);
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < holidays; i++) {
+            LocalDate date = LocalDate.ofYearDay(KEY.year(), 1 + i % 365);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"date\":\"").append(date).append("\",")
+                    .append("\"localName\":\"Święto ").append(i).append("\",")
+                    .append("\"name\":\"Holiday ").append(i).append("\",")
+                    .append("\"countryCode\":\"PL\",\"fixed\":").append(i % 2 == 0).append(",\"global\":").append(i % 3 != 0).append(",")
+                    .append("\"counties\":").append(i % 3 != 0 ? "null" : "[\"PL-02\",\"PL-04\",\"PL-06\"]").append(",")
+                    .append("\"launchYear\":").append(i % 4 == 0 ? "1791" : "null").append(",")
+                    .append("\"types\":[\"Public\"]}");
+        }
+        payload = json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public HolidayCalendar dataBinding() throws IOException {
+        PublicHolidayDto[] publicHolidays = objectMapper.readValue(payload, PublicHolidayDto[].class);
+        return HolidayCalendar.of(KEY.countryCode(), KEY.year(), List.of(publicHolidays));
+    }
+
+    @Benchmark
+    public HolidayCalendar streamingDecoder() {
+        return holidayCalendarDecoder.decode(Flux.fromIterable(split()), KEY).block();
+    }
+
+    private List<DataBuffer> split() {
+        List<DataBuffer> dataBuffers = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += bufferSize) {
+            dataBuffers.add(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, offset, Math.min(bufferSize, payload.length - offset))));
+        }
+        return dataBuffers;
+    }
+}
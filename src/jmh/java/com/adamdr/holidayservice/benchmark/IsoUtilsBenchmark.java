@@ -0,0 +1,26 @@
+package com.adamdr.holidayservice.benchmark;
+
+import com.adamdr.holidayservice.utils.IsoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IsoUtilsBenchmark {
+
+    @Param({"PL", "ZW", "XX", "pl", "POL"})
+    String countryCode;
+
+    @Benchmark
+    public boolean isValidISOCountry() {
+        return IsoUtils.isValidISOCountry(countryCode);
+    }
+}
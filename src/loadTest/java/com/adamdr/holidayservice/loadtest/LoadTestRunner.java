@@ -0,0 +1,138 @@
+package com.adamdr.holidayservice.loadtest;
+
+import com.adamdr.holidayservice.HolidayServiceApplication;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application against {@link UpstreamStandIn} and drives {@code /v1/holidays-information} with an open
+ * workload: requests are started on a fixed schedule whatever the response times, and latency is measured from the
+ * scheduled start, so queueing inside the service is not hidden by a slower generator.
+ *
+ * <p>Settings are read from {@code loadTest.*} system properties, e.g.
+ * {@code gradlew loadTest -DloadTest.rps=2000 -DloadTest.duration=60s}. All requests come from one user, so the
+ * per-user quota is off unless {@code loadTest.maxConcurrencyPerUser} is set, and only the adaptive limit sheds load.
+ */
+public final class LoadTestRunner {
+
+    private static final List<String> COUNTRY_CODES = List.of("PL", "DE", "FR", "IT", "ES", "PT", "NL", "BE", "AT", "CZ",
+            "SK", "HU", "SE", "NO", "DK", "FI", "IE", "GB", "US", "CA", "MX", "BR", "AR", "JP", "KR", "AU", "NZ", "ZA", "CH", "GR");
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        int rps = Integer.getInteger("loadTest.rps", 500);
+        Duration warmup = Duration.parse("PT" + System.getProperty("loadTest.warmup", "10s"));
+        Duration duration = Duration.parse("PT" + System.getProperty("loadTest.duration", "30s"));
+        int countries = Math.max(2, Math.min(Integer.getInteger("loadTest.countries", 10), COUNTRY_CODES.size()));
+        int dateSpreadDays = Integer.getInteger("loadTest.dateSpreadDays", 730);
+
+        try (UpstreamStandIn upstreamStandIn = new UpstreamStandIn(
+                Double.parseDouble(System.getProperty("loadTest.upstreamMedianMillis", "40")),
+                Double.parseDouble(System.getProperty("loadTest.upstreamP99Millis", "400")),
+                Double.parseDouble(System.getProperty("loadTest.upstreamErrorRate", "0.01")),
+                Double.parseDouble(System.getProperty("loadTest.upstreamSlowBodyRate", "0.01")))) {
+            upstreamStandIn.start();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(HolidayServiceApplication.class)
+                    .properties("server.port=0", "holidaysApiUrl=" + upstreamStandIn.url(),
+                            "holidaysLoadShedding.maxConcurrencyPerUser=" + Integer.getInteger("loadTest.maxConcurrencyPerUser", 0),
+                            "logging.level.com.adamdr.holidayservice=INFO")
+                    .run(args);
+            try {
+                int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+                ConnectionProvider connectionProvider = ConnectionProvider.builder("load-test")
+                        .maxConnections(Integer.getInteger("loadTest.connections", 512))
+                        .pendingAcquireMaxCount(-1)
+                        .build();
+                HttpClient httpClient = HttpClient.create(connectionProvider)
+                        .baseUrl("http://localhost:" + port)
+                        .headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                                .encodeToString(System.getProperty("loadTest.credentials", "admin:admin").getBytes(StandardCharsets.UTF_8))));
+
+                run(httpClient, rps, warmup, countries, dateSpreadDays);
+                long upstreamRequestsBefore = upstreamStandIn.requests();
+                Result result = run(httpClient, rps, duration, countries, dateSpreadDays);
+                report(result, duration, rps, upstreamStandIn.requests() - upstreamRequestsBefore, upstreamStandIn.errors());
+                connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static Result run(HttpClient httpClient, int rps, Duration duration, int countries, int dateSpreadDays) throws InterruptedException {
+        Recorder recorder = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong outstanding = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        LocalDate firstDate = LocalDate.of(2022, 1, 1);
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(countries);
+            int second = (first + 1 + random.nextInt(countries - 1)) % countries;
+            String uri = "/v1/holidays-information?date=" + firstDate.plusDays(random.nextInt(dateSpreadDays))
+                    + "&firstCountryCode=" + COUNTRY_CODES.get(first) + "&secondCountryCode=" + COUNTRY_CODES.get(second);
+            long scheduledStart = scheduled;
+            outstanding.incrementAndGet();
+            httpClient.get()
+                    .uri(uri)
+                    .responseSingle((response, body) -> body.asByteArray()
+                            .defaultIfEmpty(new byte[0])
+                            .map(bytes -> response.status().code()))
+                    .subscribe(status -> {
+                                recorder.recordValue(System.nanoTime() - scheduledStart);
+                                (status == 200 ? completed : failed).incrementAndGet();
+                            },
+                            ex -> {
+                                recorder.recordValue(System.nanoTime() - scheduledStart);
+                                failed.incrementAndGet();
+                                outstanding.decrementAndGet();
+                            },
+                            outstanding::decrementAndGet);
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return new Result(recorder.getIntervalHistogram(), completed.get(), failed.get(), System.nanoTime() - start);
+    }
+
+    private static void report(Result result, Duration duration, int rps, long upstreamRequests, long upstreamErrors) {
+        Histogram histogram = result.histogram();
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf("Target rate:        %d req/s for %s%n", rps, duration);
+        System.out.printf("Throughput:         %.1f req/s (%d ok, %d failed)%n", (result.completed() + result.failed()) / seconds, result.completed(), result.failed());
+        System.out.printf("Latency p50:        %.2f ms%n", histogram.getValueAtPercentile(50) / 1e6);
+        System.out.printf("Latency p90:        %.2f ms%n", histogram.getValueAtPercentile(90) / 1e6);
+        System.out.printf("Latency p99:        %.2f ms%n", histogram.getValueAtPercentile(99) / 1e6);
+        System.out.printf("Latency p99.9:      %.2f ms%n", histogram.getValueAtPercentile(99.9) / 1e6);
+        System.out.printf("Latency max:        %.2f ms%n", histogram.getMaxValue() / 1e6);
+        System.out.printf("Upstream calls:     %d (%.3f per request, %d injected errors overall)%n", upstreamRequests,
+                (double) upstreamRequests / Math.max(1, result.completed() + result.failed()), upstreamErrors);
+    }
+
+    private record Result(Histogram histogram, long completed, long failed, long elapsedNanos) {}
+}
@@ -0,0 +1,104 @@
+package com.adamdr.holidayservice.loadtest;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Public Holiday API. Every {@code /{year}/{countryCode}} gets a deterministic calendar, served
+ * after a log-normal delay with the given median and p99, failing with 503 at {@code errorRate} and trickling the body
+ * at {@code slowBodyRate}.
+ */
+public class UpstreamStandIn implements AutoCloseable {
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final double latencyMu;
+    private final double latencySigma;
+    private final double errorRate;
+    private final double slowBodyRate;
+
+    public UpstreamStandIn(double medianLatencyMillis, double p99LatencyMillis, double errorRate, double slowBodyRate) {
+        this.latencyMu = Math.log(Math.max(medianLatencyMillis, 0.001));
+        this.latencySigma = Math.max(0, Math.log(Math.max(p99LatencyMillis, medianLatencyMillis) / Math.max(medianLatencyMillis, 0.001)) / 2.326);
+        this.errorRate = errorRate;
+        this.slowBodyRate = slowBodyRate;
+    }
+
+    public void start() throws IOException {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                return respond(recordedRequest);
+            }
+        });
+        mockWebServer.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + mockWebServer.getPort() + "/";
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest recordedRequest) {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMicros = (long) (Math.exp(latencyMu + latencySigma * random.nextGaussian()) * 1000);
+        String[] path = String.valueOf(recordedRequest.getPath()).split("/");
+        if (path.length != 3 || random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            return new MockResponse().setResponseCode(503).setHeadersDelay(latencyMicros, TimeUnit.MICROSECONDS);
+        }
+        MockResponse mockResponse = new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(calendar(Integer.parseInt(path[1]), path[2]))
+                .setHeadersDelay(latencyMicros, TimeUnit.MICROSECONDS);
+        return random.nextDouble() < slowBodyRate ? mockResponse.throttleBody(256, 50, TimeUnit.MILLISECONDS) : mockResponse;
+    }
+
+    private static String calendar(int year, String countryCode) {
+        Random random = new Random(31L * year + countryCode.hashCode());
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        dates.add(LocalDate.of(year, 1, 1));
+        dates.add(LocalDate.of(year, 12, 25));
+        int holidays = 8 + random.nextInt(8);
+        while (dates.size() < holidays) {
+            dates.add(LocalDate.ofYearDay(year, 1 + random.nextInt(365)));
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (LocalDate date : dates) {
+            json.append(json.length() == 1 ? "" : ",")
+                    .append("{\"date\":\"").append(date)
+                    .append("\",\"localName\":\"").append(countryCode).append(' ').append(date)
+                    .append("\",\"name\":\"Holiday ").append(date)
+                    .append("\",\"countryCode\":\"").append(countryCode)
+                    .append("\",\"fixed\":false,\"global\":true,\"counties\":null,\"launchYear\":null,\"types\":[\"Public\"]}");
+        }
+        return json.append("]").toString();
+    }
+}
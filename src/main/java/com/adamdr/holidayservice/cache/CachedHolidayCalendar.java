@@ -0,0 +1,32 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+
+public final class CachedHolidayCalendar {
+
+    private final HolidayCalendar holidayCalendar;
+    private final long loadedAt;
+    private volatile long lastAccessedAt;
+
+    public CachedHolidayCalendar(HolidayCalendar holidayCalendar, long loadedAt) {
+        this.holidayCalendar = holidayCalendar;
+        this.loadedAt = loadedAt;
+        this.lastAccessedAt = loadedAt;
+    }
+
+    public HolidayCalendar holidayCalendar() {
+        return holidayCalendar;
+    }
+
+    public long loadedAt() {
+        return loadedAt;
+    }
+
+    public long lastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    void accessed(long accessedAt) {
+        lastAccessedAt = Math.max(lastAccessedAt, accessedAt);
+    }
+}
@@ -0,0 +1,77 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.dto.HolidayDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Next common holiday answers of country pairs. An answer holiday found for a date is also the answer for every later
+ * date before the holiday, so each answer is stored under the interval {@code [date, holiday)} and any date inside
+ * it is a hit. Pairs are kept in canonical order, (A, B) and (B, A) share the same intervals.
+ */
+@Component
+public class HolidayAnswerCache {
+
+    private final Cache<CountryPair, ConcurrentNavigableMap<LocalDate, HolidayDto>> answers;
+    private final InFlightRequests<AnswerKey, HolidayDto> inFlightRequests = new InFlightRequests<>();
+
+    @Autowired
+    public HolidayAnswerCache(@Value("${holidaysAnswerCache.maximumPairs:10000}") long maximumPairs,
+                              @Value("${holidaysAnswerCache.expireAfterWrite:1h}") Duration expireAfterWrite) {
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maximumPairs)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Mono<HolidayDto> get(LocalDate date, String firstCountryCode, String secondCountryCode, AnswerLoader answerLoader) {
+        if (date == null || firstCountryCode == null || secondCountryCode == null) {
+            return answerLoader.load(date, firstCountryCode, secondCountryCode);
+        }
+        boolean swapped = firstCountryCode.compareTo(secondCountryCode) > 0;
+        CountryPair countryPair = swapped ? new CountryPair(secondCountryCode, firstCountryCode) : new CountryPair(firstCountryCode, secondCountryCode);
+        return Mono.defer(() -> Mono.justOrEmpty(find(countryPair, date)))
+                .switchIfEmpty(inFlightRequests.join(new AnswerKey(countryPair, date), () ->
+                        answerLoader.load(date, countryPair.first(), countryPair.second())
+                                .doOnNext(holidayDto -> store(countryPair, date, holidayDto))))
+                .map(holidayDto -> swapped ? new HolidayDto(holidayDto.date(), holidayDto.name2(), holidayDto.name1()) : holidayDto);
+    }
+
+    private HolidayDto find(CountryPair countryPair, LocalDate date) {
+        ConcurrentNavigableMap<LocalDate, HolidayDto> intervals = answers.getIfPresent(countryPair);
+        if (intervals == null) {
+            return null;
+        }
+        Map.Entry<LocalDate, HolidayDto> interval = intervals.floorEntry(date);
+        return interval != null && date.isBefore(interval.getValue().date()) ? interval.getValue() : null;
+    }
+
+    private void store(CountryPair countryPair, LocalDate date, HolidayDto holidayDto) {
+        if (holidayDto.date() == null || !date.isBefore(holidayDto.date())) {
+            return;
+        }
+        ConcurrentNavigableMap<LocalDate, HolidayDto> intervals = answers.get(countryPair, key -> new ConcurrentSkipListMap<>());
+        intervals.subMap(date, false, holidayDto.date(), false).clear();
+        intervals.put(date, holidayDto);
+    }
+
+    @FunctionalInterface
+    public interface AnswerLoader {
+
+        Mono<HolidayDto> load(LocalDate date, String firstCountryCode, String secondCountryCode);
+    }
+
+    private record CountryPair(String first, String second) {}
+
+    private record AnswerKey(CountryPair countryPair, LocalDate date) {}
+}
@@ -0,0 +1,107 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Calendars are fresh for {@code expireAfterWrite} and are then still served, while being refreshed, for at most
+ * {@code maxStaleness}. Entries get into the refresh-ahead window {@code refreshAhead} before they become stale.
+ */
+@Component
+public class HolidayCalendarCache implements MeterBinder {
+
+    private final Cache<HolidayCalendarKey, CachedHolidayCalendar> cache;
+    private final long expireAfterWriteMillis;
+    private final long maxStalenessMillis;
+    private final long refreshAheadMillis;
+
+    @Autowired
+    public HolidayCalendarCache(@Value("${holidaysCache.maximumSize:1000}") long maximumSize,
+                                @Value("${holidaysCache.expireAfterWrite:24h}") Duration expireAfterWrite,
+                                @Value("${holidaysCache.maxStaleness:7d}") Duration maxStaleness,
+                                @Value("${holidaysCache.refreshAhead:1h}") Duration refreshAhead) {
+        this.expireAfterWriteMillis = expireAfterWrite.toMillis();
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite.plus(maxStaleness))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CachedHolidayCalendar> get(HolidayCalendarKey key) {
+        CachedHolidayCalendar cachedHolidayCalendar = cache.getIfPresent(key);
+        if (cachedHolidayCalendar != null) {
+            cachedHolidayCalendar.accessed(System.currentTimeMillis());
+        }
+        return Optional.ofNullable(cachedHolidayCalendar);
+    }
+
+    /**
+     * Marks a calendar as used when it was served from a copy outside this cache, so it stays in refresh-ahead.
+     */
+    public void recordAccess(HolidayCalendarKey key) {
+        get(key);
+    }
+
+    public void put(HolidayCalendarKey key, HolidayCalendar holidayCalendar) {
+        put(key, new CachedHolidayCalendar(holidayCalendar, System.currentTimeMillis()));
+    }
+
+    /**
+     * A refreshed entry keeps the access time of the entry it replaces, so calendars nobody asks for anymore drop out
+     * of refresh-ahead and expire.
+     */
+    public void put(HolidayCalendarKey key, CachedHolidayCalendar cachedHolidayCalendar) {
+        CachedHolidayCalendar previous = cache.getIfPresent(key);
+        cachedHolidayCalendar.accessed(previous != null ? previous.lastAccessedAt() : System.currentTimeMillis());
+        cache.put(key, cachedHolidayCalendar);
+    }
+
+    public boolean isStale(CachedHolidayCalendar cachedHolidayCalendar) {
+        return age(cachedHolidayCalendar) >= expireAfterWriteMillis;
+    }
+
+    public boolean isExpired(CachedHolidayCalendar cachedHolidayCalendar) {
+        return age(cachedHolidayCalendar) >= expireAfterWriteMillis + maxStalenessMillis;
+    }
+
+    public List<HolidayCalendarKey> refreshCandidates(int limit) {
+        long now = System.currentTimeMillis();
+        return cache.asMap().entrySet().stream()
+                .filter(entry -> now - entry.getValue().loadedAt() >= expireAfterWriteMillis - refreshAheadMillis)
+                .filter(entry -> now - entry.getValue().lastAccessedAt() < expireAfterWriteMillis)
+                .sorted(Comparator.comparingLong((Map.Entry<HolidayCalendarKey, CachedHolidayCalendar> entry) -> entry.getValue().lastAccessedAt()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "holidayCalendars");
+    }
+
+    private long age(CachedHolidayCalendar cachedHolidayCalendar) {
+        return System.currentTimeMillis() - cachedHolidayCalendar.loadedAt();
+    }
+}
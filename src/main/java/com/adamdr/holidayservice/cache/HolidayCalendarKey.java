@@ -0,0 +1,3 @@
+package com.adamdr.holidayservice.cache;
+
+public record HolidayCalendarKey(String countryCode, int year) {}
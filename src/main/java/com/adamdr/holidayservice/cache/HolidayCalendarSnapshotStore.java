@@ -0,0 +1,249 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * On-disk snapshot of fetched holiday calendars. The file is memory-mapped on startup and only its entry index is
+ * read eagerly, calendars are decoded from the mapping when they are first looked up. New calendars are collected
+ * and written out after a short delay by rewriting the whole file to a temporary sibling and atomically moving it
+ * into place.
+ * <p>
+ * Layout: header (magic, version, entry count, payload length, CRC32 of payload) followed by entries of
+ * (length, country code, year, load time, holiday count, holidays as (day of year, local name, name)).
+ */
+@Slf4j
+@Component
+public class HolidayCalendarSnapshotStore {
+
+    private static final int MAGIC = 0x48434C53;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private final boolean enabled;
+    private final Path path;
+    private final Duration flushDelay;
+    private final Map<HolidayCalendarKey, CachedHolidayCalendar> pendingHolidayCalendars = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    public HolidayCalendarSnapshotStore(@Value("${holidaysSnapshot.enabled:false}") boolean enabled,
+                                        @Value("${holidaysSnapshot.path:holiday-calendars.snapshot}") String path,
+                                        @Value("${holidaysSnapshot.flushDelay:5s}") Duration flushDelay) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.flushDelay = flushDelay;
+        if (enabled) {
+            this.snapshot = open(this.path);
+            log.info("Loaded {} holiday calendars from snapshot {}", snapshot.offsets().size(), this.path);
+        }
+    }
+
+    public Optional<CachedHolidayCalendar> find(HolidayCalendarKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedHolidayCalendar pendingHolidayCalendar = pendingHolidayCalendars.get(key);
+        return pendingHolidayCalendar != null ? Optional.of(pendingHolidayCalendar) : snapshot.find(key);
+    }
+
+    public void store(CachedHolidayCalendar cachedHolidayCalendar) {
+        if (!enabled) {
+            return;
+        }
+        HolidayCalendar holidayCalendar = cachedHolidayCalendar.holidayCalendar();
+        pendingHolidayCalendars.put(new HolidayCalendarKey(holidayCalendar.countryCode(), holidayCalendar.year()), cachedHolidayCalendar);
+        if (flushScheduled.compareAndSet(false, true)) {
+            Mono.delay(flushDelay, Schedulers.boundedElastic())
+                    .subscribe(tick -> flush());
+        }
+    }
+
+    public int size() {
+        return snapshot.offsets().size();
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        flushScheduled.set(false);
+        if (!enabled || pendingHolidayCalendars.isEmpty()) {
+            return;
+        }
+        Map<HolidayCalendarKey, CachedHolidayCalendar> flushedHolidayCalendars = Map.copyOf(pendingHolidayCalendars);
+        Snapshot currentSnapshot = snapshot;
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(payload);
+            int entryCount = 0;
+            for (Map.Entry<HolidayCalendarKey, Integer> offset : currentSnapshot.offsets().entrySet()) {
+                if (!flushedHolidayCalendars.containsKey(offset.getKey())) {
+                    output.write(currentSnapshot.rawEntry(offset.getValue()));
+                    entryCount++;
+                }
+            }
+            for (CachedHolidayCalendar cachedHolidayCalendar : flushedHolidayCalendars.values()) {
+                writeEntry(output, cachedHolidayCalendar);
+                entryCount++;
+            }
+            output.flush();
+            write(payload.toByteArray(), entryCount);
+            snapshot = open(path);
+            flushedHolidayCalendars.forEach((key, cachedHolidayCalendar) -> pendingHolidayCalendars.remove(key, cachedHolidayCalendar));
+            log.debug("Written {} holiday calendars to snapshot {}", entryCount, path);
+        } catch (IOException e) {
+            log.warn("Can't write holiday calendar snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void write(byte[] payload, int entryCount) throws IOException {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(entryCount)
+                .putInt(payload.length)
+                .putInt((int) crc32.getValue())
+                .flip();
+        ByteBuffer body = ByteBuffer.wrap(payload);
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryPath, path, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    private static void writeEntry(DataOutputStream output, CachedHolidayCalendar cachedHolidayCalendar) throws IOException {
+        HolidayCalendar holidayCalendar = cachedHolidayCalendar.holidayCalendar();
+        ByteArrayOutputStream entry = new ByteArrayOutputStream();
+        DataOutputStream entryOutput = new DataOutputStream(entry);
+        writeString(entryOutput, holidayCalendar.countryCode());
+        entryOutput.writeInt(holidayCalendar.year());
+        entryOutput.writeLong(cachedHolidayCalendar.loadedAt());
+        entryOutput.writeShort(holidayCalendar.size());
+        for (int dayOfYear = holidayCalendar.nextHoliday(1); dayOfYear != -1; dayOfYear = holidayCalendar.nextHoliday(dayOfYear + 1)) {
+            entryOutput.writeShort(dayOfYear);
+            writeString(entryOutput, holidayCalendar.localName(dayOfYear));
+            writeString(entryOutput, holidayCalendar.name(dayOfYear));
+        }
+        entryOutput.flush();
+        output.writeInt(entry.size());
+        entry.writeTo(output);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Snapshot open(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Snapshot.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            return Snapshot.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring holiday calendar snapshot {}: {}", path, e.getMessage());
+            return Snapshot.EMPTY;
+        }
+    }
+
+    private record Snapshot(ByteBuffer buffer, Map<HolidayCalendarKey, Integer> offsets) {
+
+        static final Snapshot EMPTY = new Snapshot(ByteBuffer.allocate(0), Map.of());
+
+        static Snapshot read(ByteBuffer buffer) {
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a holiday calendar snapshot");
+            }
+            if (buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IllegalStateException("Unsupported snapshot version " + buffer.getInt(Integer.BYTES));
+            }
+            int entryCount = buffer.getInt(2 * Integer.BYTES);
+            int payloadLength = buffer.getInt(3 * Integer.BYTES);
+            if (HEADER_SIZE + payloadLength != buffer.capacity()) {
+                throw new IllegalStateException("Snapshot is truncated");
+            }
+            CRC32 crc32 = new CRC32();
+            crc32.update(buffer.slice(HEADER_SIZE, payloadLength));
+            if ((int) crc32.getValue() != buffer.getInt(4 * Integer.BYTES)) {
+                throw new IllegalStateException("Snapshot checksum mismatch");
+            }
+            Map<HolidayCalendarKey, Integer> offsets = new HashMap<>(entryCount * 2);
+            ByteBuffer entries = buffer.duplicate().position(HEADER_SIZE);
+            for (int i = 0; i < entryCount; i++) {
+                int offset = entries.position();
+                int entryLength = entries.getInt();
+                offsets.put(new HolidayCalendarKey(readString(entries), entries.getInt()), offset);
+                entries.position(offset + Integer.BYTES + entryLength);
+            }
+            return new Snapshot(buffer, Map.copyOf(offsets));
+        }
+
+        Optional<CachedHolidayCalendar> find(HolidayCalendarKey key) {
+            Integer offset = offsets.get(key);
+            if (offset == null) {
+                return Optional.empty();
+            }
+            ByteBuffer entry = buffer.duplicate().position(offset + Integer.BYTES);
+            HolidayCalendar.Builder builder = HolidayCalendar.builder(readString(entry), entry.getInt());
+            long loadedAt = entry.getLong();
+            int size = Short.toUnsignedInt(entry.getShort());
+            for (int i = 0; i < size; i++) {
+                int dayOfYear = entry.getShort();
+                builder.add(LocalDate.ofYearDay(key.year(), dayOfYear), readString(entry), readString(entry));
+            }
+            return Optional.of(new CachedHolidayCalendar(builder.build(), loadedAt));
+        }
+
+        byte[] rawEntry(int offset) {
+            byte[] rawEntry = new byte[Integer.BYTES + buffer.getInt(offset)];
+            buffer.get(offset, rawEntry);
+            return rawEntry;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.adamdr.holidayservice.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Registry of requests that are currently being executed. Concurrent subscribers asking for the same key share
+ * a single execution of the request and all of them receive its value or error. The entry is removed as soon as
+ * the request terminates, so a later subscriber starts a new request. A terminating request only removes its own
+ * entry, never one registered for the same key after it.
+ */
+public class InFlightRequests<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight;
+
+    public InFlightRequests() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    InFlightRequests(ConcurrentMap<K, Mono<V>> inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public Mono<V> join(K key, Supplier<Mono<V>> request) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> {
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> shared = Mono.defer(request)
+                    .doFinally(signalType -> inFlight.remove(k, self.get()))
+                    .cache();
+            self.set(shared);
+            return shared;
+        }));
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
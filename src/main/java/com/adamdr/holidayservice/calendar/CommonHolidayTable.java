@@ -0,0 +1,173 @@
+package com.adamdr.holidayservice.calendar;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Common holidays of every pair of countries in a single year. Countries are sorted by code, the pair (i, j) with
+ * i &lt; j has index {@code i * n - i * (i + 1) / 2 + j - i - 1} and its days of year are
+ * {@code days[offsets[pair]] .. days[offsets[pair + 1] - 1]}, sorted ascending. Instances are immutable, an updated
+ * calendar produces a new table that reuses the unchanged pairs.
+ */
+public final class CommonHolidayTable {
+
+    public static final int UNKNOWN_PAIR = -2;
+
+    private final int year;
+    private final HolidayCalendar[] calendars;
+    private final Map<String, Integer> countryIndexes;
+    private final int[] offsets;
+    private final short[] days;
+
+    private CommonHolidayTable(int year, HolidayCalendar[] calendars, int[] offsets, short[] days) {
+        this.year = year;
+        this.calendars = calendars;
+        this.countryIndexes = new HashMap<>(calendars.length * 2);
+        for (int i = 0; i < calendars.length; i++) {
+            countryIndexes.put(calendars[i].countryCode(), i);
+        }
+        this.offsets = offsets;
+        this.days = days;
+    }
+
+    public static CommonHolidayTable build(int year, Collection<HolidayCalendar> holidayCalendars, ForkJoinPool forkJoinPool) {
+        HolidayCalendar[] calendars = holidayCalendars.stream()
+                .filter(holidayCalendar -> holidayCalendar.year() == year)
+                .sorted((first, second) -> first.countryCode().compareTo(second.countryCode()))
+                .toArray(HolidayCalendar[]::new);
+        return pack(year, calendars, forkJoinPool, null, -1);
+    }
+
+    /**
+     * Returns a table with {@code holidayCalendar} added or replaced, recomputing only the pairs of its country.
+     */
+    public CommonHolidayTable withCalendar(HolidayCalendar holidayCalendar, ForkJoinPool forkJoinPool) {
+        Integer index = countryIndexes.get(holidayCalendar.countryCode());
+        if (holidayCalendar.year() != year || (index != null && calendars[index].equals(holidayCalendar))) {
+            return this;
+        }
+        if (index == null) {
+            HolidayCalendar[] extended = Arrays.copyOf(calendars, calendars.length + 1);
+            extended[calendars.length] = holidayCalendar;
+            return build(year, Arrays.asList(extended), forkJoinPool);
+        }
+        HolidayCalendar[] updated = calendars.clone();
+        updated[index] = holidayCalendar;
+        return pack(year, updated, forkJoinPool, this, index);
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public int countries() {
+        return calendars.length;
+    }
+
+    public boolean contains(String countryCode) {
+        return countryIndexes.containsKey(countryCode);
+    }
+
+    public HolidayCalendar calendar(String countryCode) {
+        Integer index = countryIndexes.get(countryCode);
+        return index == null ? null : calendars[index];
+    }
+
+    /**
+     * First common day of year of both countries not before {@code fromDayOfYear}, -1 when there is none and
+     * {@link #UNKNOWN_PAIR} when the table has no calendar of either country.
+     */
+    public int nextCommonHoliday(String firstCountryCode, String secondCountryCode, int fromDayOfYear) {
+        Integer first = countryIndexes.get(firstCountryCode);
+        Integer second = countryIndexes.get(secondCountryCode);
+        if (first == null || second == null) {
+            return UNKNOWN_PAIR;
+        }
+        if (first.equals(second)) {
+            return calendars[first].nextHoliday(fromDayOfYear);
+        }
+        int pair = pairIndex(Math.min(first, second), Math.max(first, second), calendars.length);
+        int from = offsets[pair];
+        int to = offsets[pair + 1];
+        int found = Arrays.binarySearch(days, from, to, (short) Math.max(fromDayOfYear, 1));
+        int position = found >= 0 ? found : -found - 1;
+        return position < to ? days[position] : -1;
+    }
+
+    public long sizeInBytes() {
+        return 4L * offsets.length + 2L * days.length;
+    }
+
+    private static CommonHolidayTable pack(int year, HolidayCalendar[] calendars, ForkJoinPool forkJoinPool,
+                                           CommonHolidayTable previous, int changedIndex) {
+        int n = calendars.length;
+        short[][] rows = forkJoinPool.submit(() -> IntStream.range(0, n)
+                        .parallel()
+                        .mapToObj(i -> row(calendars, i, previous, changedIndex))
+                        .toArray(short[][]::new))
+                .join();
+        int pairs = n * (n - 1) / 2;
+        int[] offsets = new int[pairs + 1];
+        int encodedLength = 0;
+        for (short[] row : rows) {
+            encodedLength += row.length;
+        }
+        short[] days = new short[encodedLength - pairs];
+        int pair = 0;
+        int position = 0;
+        for (short[] row : rows) {
+            int cursor = 0;
+            while (cursor < row.length) {
+                int count = row[cursor++];
+                offsets[pair++] = position;
+                System.arraycopy(row, cursor, days, position, count);
+                position += count;
+                cursor += count;
+            }
+        }
+        offsets[pairs] = position;
+        return new CommonHolidayTable(year, calendars, offsets, days);
+    }
+
+    /**
+     * Pairs (i, j &gt; i) encoded as a count followed by that many days for every j in order.
+     */
+    private static short[] row(HolidayCalendar[] calendars, int i, CommonHolidayTable previous, int changedIndex) {
+        int n = calendars.length;
+        short[] buffer = new short[(n - i - 1) * 8 + 16];
+        int length = 0;
+        for (int j = i + 1; j < n; j++) {
+            int header = length++;
+            int count = 0;
+            if (previous != null && i != changedIndex && j != changedIndex) {
+                int pair = pairIndex(i, j, n);
+                int from = previous.offsets[pair];
+                count = previous.offsets[pair + 1] - from;
+                buffer = ensureCapacity(buffer, length + count);
+                System.arraycopy(previous.days, from, buffer, length, count);
+                length += count;
+            } else {
+                for (int day = HolidayCalendar.nextCommonHoliday(calendars[i], calendars[j], 1); day != -1;
+                     day = HolidayCalendar.nextCommonHoliday(calendars[i], calendars[j], day + 1)) {
+                    buffer = ensureCapacity(buffer, length + 1);
+                    buffer[length++] = (short) day;
+                    count++;
+                }
+            }
+            buffer[header] = (short) count;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static short[] ensureCapacity(short[] buffer, int capacity) {
+        return capacity <= buffer.length ? buffer : Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+    }
+
+    private static int pairIndex(int i, int j, int n) {
+        return i * n - i * (i + 1) / 2 + j - i - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.adamdr.holidayservice.calendar;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rules of all public holidays of a country, valid from the {@code validFrom} year on.
+ */
+public record CountryHolidayRules(String countryCode, int validFrom, List<HolidayRule> holidays) {
+
+    public boolean supports(int year) {
+        return year >= validFrom;
+    }
+
+    public HolidayCalendar calendar(int year) {
+        HolidayCalendar.Builder builder = HolidayCalendar.builder(countryCode, year);
+        for (HolidayRule holiday : holidays) {
+            add(builder, holiday, holiday.date(year));
+            if (holiday.hasSubstitutes()) {
+                add(builder, holiday, holiday.date(year - 1));
+                add(builder, holiday, holiday.date(year + 1));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void add(HolidayCalendar.Builder builder, HolidayRule holiday, LocalDate date) {
+        builder.add(date, holiday.localName(), holiday.name());
+    }
+}
@@ -0,0 +1,190 @@
+package com.adamdr.holidayservice.calendar;
+
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holidays of a single country in a single year, stored as one bit per day of the year and a table of names
+ * ordered by day. Days are addressed by their 1-based day of year, searches return -1 when nothing is found.
+ */
+public final class HolidayCalendar {
+
+    private static final int WORDS = 6;
+    private static final int MAX_DAY_OF_YEAR = 366;
+
+    private final String countryCode;
+    private final int year;
+    private final long[] days;
+    private final String[] localNames;
+    private final String[] names;
+
+    private HolidayCalendar(String countryCode, int year, long[] days, String[] localNames, String[] names) {
+        this.countryCode = countryCode;
+        this.year = year;
+        this.days = days;
+        this.localNames = localNames;
+        this.names = names;
+    }
+
+    public static HolidayCalendar of(String countryCode, int year, List<PublicHolidayDto> publicHolidays) {
+        Builder builder = builder(countryCode, year);
+        publicHolidays.forEach(publicHolidayDto -> builder.add(publicHolidayDto.date(), publicHolidayDto.localName(), publicHolidayDto.name()));
+        return builder.build();
+    }
+
+    public static Builder builder(String countryCode, int year) {
+        return new Builder(countryCode, year);
+    }
+
+    public static int nextCommonHoliday(HolidayCalendar first, HolidayCalendar second, int fromDayOfYear) {
+        int bit = Math.max(fromDayOfYear, 1) - 1;
+        if (bit >= MAX_DAY_OF_YEAR) {
+            return -1;
+        }
+        int wordIndex = bit >>> 6;
+        long word = first.days[wordIndex] & second.days[wordIndex] & (-1L << bit);
+        while (word == 0) {
+            if (++wordIndex == WORDS) {
+                return -1;
+            }
+            word = first.days[wordIndex] & second.days[wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word) + 1;
+    }
+
+    public static int nextCommonHoliday(List<HolidayCalendar> calendars, int fromDayOfYear) {
+        int bit = Math.max(fromDayOfYear, 1) - 1;
+        if (calendars.isEmpty() || bit >= MAX_DAY_OF_YEAR) {
+            return -1;
+        }
+        int wordIndex = bit >>> 6;
+        long word = commonWord(calendars, wordIndex) & (-1L << bit);
+        while (word == 0) {
+            if (++wordIndex == WORDS) {
+                return -1;
+            }
+            word = commonWord(calendars, wordIndex);
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word) + 1;
+    }
+
+    private static long commonWord(List<HolidayCalendar> calendars, int wordIndex) {
+        long word = -1L;
+        for (int i = 0; i < calendars.size() && word != 0; i++) {
+            word &= calendars.get(i).days[wordIndex];
+        }
+        return word;
+    }
+
+    public String countryCode() {
+        return countryCode;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public int size() {
+        return localNames.length;
+    }
+
+    public boolean isHoliday(int dayOfYear) {
+        int bit = dayOfYear - 1;
+        return bit >= 0 && bit < MAX_DAY_OF_YEAR && (days[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public int nextHoliday(int fromDayOfYear) {
+        return nextCommonHoliday(this, this, fromDayOfYear);
+    }
+
+    public LocalDate date(int dayOfYear) {
+        return LocalDate.ofYearDay(year, dayOfYear);
+    }
+
+    public String localName(int dayOfYear) {
+        return isHoliday(dayOfYear) ? localNames[rank(dayOfYear)] : null;
+    }
+
+    public String name(int dayOfYear) {
+        return isHoliday(dayOfYear) ? names[rank(dayOfYear)] : null;
+    }
+
+    public List<PublicHolidayDto> toPublicHolidays() {
+        List<PublicHolidayDto> publicHolidays = new ArrayList<>(size());
+        for (int dayOfYear = nextHoliday(1), index = 0; dayOfYear != -1; dayOfYear = nextHoliday(dayOfYear + 1), index++) {
+            publicHolidays.add(new PublicHolidayDto(date(dayOfYear), localNames[index], names[index], countryCode));
+        }
+        return publicHolidays;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HolidayCalendar that)) {
+            return false;
+        }
+        return year == that.year && countryCode.equals(that.countryCode) && Arrays.equals(days, that.days)
+                && Arrays.equals(localNames, that.localNames) && Arrays.equals(names, that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * countryCode.hashCode() + year) + Arrays.hashCode(days);
+    }
+
+    private int rank(int dayOfYear) {
+        int bit = dayOfYear - 1;
+        int wordIndex = bit >>> 6;
+        int rank = 0;
+        for (int i = 0; i < wordIndex; i++) {
+            rank += Long.bitCount(days[i]);
+        }
+        return rank + Long.bitCount(days[wordIndex] & ((1L << bit) - 1));
+    }
+
+    public static final class Builder {
+
+        private final String countryCode;
+        private final int year;
+        private final Map<Integer, String[]> holidays = new TreeMap<>();
+
+        private Builder(String countryCode, int year) {
+            this.countryCode = countryCode;
+            this.year = year;
+        }
+
+        public Builder add(LocalDate date, String localName, String name) {
+            if (date != null && date.getYear() == year) {
+                holidays.putIfAbsent(date.getDayOfYear(), new String[]{intern(localName), intern(name)});
+            }
+            return this;
+        }
+
+        public HolidayCalendar build() {
+            long[] days = new long[WORDS];
+            String[] localNames = new String[holidays.size()];
+            String[] names = new String[holidays.size()];
+            int index = 0;
+            for (Map.Entry<Integer, String[]> holiday : holidays.entrySet()) {
+                int bit = holiday.getKey() - 1;
+                days[bit >>> 6] |= 1L << bit;
+                localNames[index] = holiday.getValue()[0];
+                names[index] = holiday.getValue()[1];
+                index++;
+            }
+            return new HolidayCalendar(countryCode, year, days, localNames, names);
+        }
+
+        private static String intern(String value) {
+            return value == null ? null : value.intern();
+        }
+    }
+}
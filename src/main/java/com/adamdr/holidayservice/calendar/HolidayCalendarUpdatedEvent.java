@@ -0,0 +1,7 @@
+package com.adamdr.holidayservice.calendar;
+
+/**
+ * Published whenever a calendar has been fetched from the Public Holiday API, whether or not it differs from the one
+ * fetched before.
+ */
+public record HolidayCalendarUpdatedEvent(HolidayCalendar holidayCalendar) {}
@@ -0,0 +1,48 @@
+package com.adamdr.holidayservice.calendar;
+
+import com.adamdr.holidayservice.utils.EasterUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+
+/**
+ * Declarative rule of a single public holiday, read from the rules file.
+ * <ul>
+ *     <li>{@code FIXED} - {@code month} and {@code day}</li>
+ *     <li>{@code EASTER} - {@code offset} days from Western Easter Sunday</li>
+ *     <li>{@code NTH_WEEKDAY} - {@code nth} {@code dayOfWeek} of {@code month}, negative {@code nth} counts from the end</li>
+ * </ul>
+ * {@code substitutes} moves the date by the given number of days when it falls on one of the given days of week, e.g.
+ * {@code {"SATURDAY": -1, "SUNDAY": 1}}. {@code validFrom} and {@code validTo} are inclusive years, both optional.
+ */
+public record HolidayRule(String localName, String name, Type type, Integer month, Integer day, Integer offset,
+                          DayOfWeek dayOfWeek, Integer nth, Map<DayOfWeek, Integer> substitutes, Integer validFrom, Integer validTo) {
+
+    public enum Type {
+        FIXED,
+        EASTER,
+        NTH_WEEKDAY
+    }
+
+    /**
+     * Date the holiday is observed on in the given year of the rule, or {@code null} when the rule doesn't apply to it.
+     * A substitute may move the date into the previous or next calendar year.
+     */
+    public LocalDate date(int year) {
+        if ((validFrom != null && year < validFrom) || (validTo != null && year > validTo)) {
+            return null;
+        }
+        LocalDate date = switch (type) {
+            case FIXED -> LocalDate.of(year, month, day);
+            case EASTER -> EasterUtils.easterSunday(year).plusDays(offset);
+            case NTH_WEEKDAY -> LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(nth, dayOfWeek));
+        };
+        return hasSubstitutes() ? date.plusDays(substitutes.getOrDefault(date.getDayOfWeek(), 0)) : date;
+    }
+
+    public boolean hasSubstitutes() {
+        return substitutes != null && !substitutes.isEmpty();
+    }
+}
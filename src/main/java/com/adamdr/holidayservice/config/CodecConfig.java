@@ -0,0 +1,82 @@
+package com.adamdr.holidayservice.config;
+
+import com.adamdr.holidayservice.web.BinaryMediaTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.smile.Jackson2SmileDecoder;
+import org.springframework.http.codec.smile.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers CBOR codecs next to the JSON ones and replaces the default Smile codecs. Both binary formats use mappers
+ * built from the application's {@link Jackson2ObjectMapperBuilder}, so they serialize like the JSON responses, e.g.
+ * dates as ISO strings. Streams are written element by element as {@code application/stream+x-jackson-smile} or
+ * {@code application/cbor-seq}.
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Autowired
+    public CodecConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ObjectMapper cborMapper = cborMapper(objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::new));
+        ObjectMapper smileMapper = smileMapper(objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::new));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        configurer.customCodecs().register(new CborEncoder(cborMapper));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, BinaryMediaTypes.APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper,
+                BinaryMediaTypes.APPLICATION_SMILE, BinaryMediaTypes.APPLICATION_STREAM_SMILE));
+    }
+
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.factory(new CBORFactory()).build();
+    }
+
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.factory(new SmileFactory()).build();
+    }
+
+    /**
+     * Spring's {@code Jackson2CborEncoder} only encodes single values, as RSocket does. Like the Smile encoder, this
+     * writes a stream as a sequence of CBOR items without separators for {@code application/cbor-seq}.
+     */
+    static final class CborEncoder extends AbstractJackson2Encoder {
+
+        private static final byte[] NO_SEPARATOR = new byte[0];
+
+        CborEncoder(ObjectMapper cborMapper) {
+            super(cborMapper, MediaType.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_CBOR_SEQ);
+            setStreamingMediaTypes(List.of(BinaryMediaTypes.APPLICATION_CBOR_SEQ));
+        }
+
+        @Nullable
+        @Override
+        protected byte[] getStreamingMediaTypeSeparator(@Nullable MimeType mimeType) {
+            for (MediaType streamingMediaType : getStreamingMediaTypes()) {
+                if (streamingMediaType.isCompatibleWith(mimeType)) {
+                    return NO_SEPARATOR;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.adamdr.holidayservice.config;
+
+import com.adamdr.holidayservice.http.WebClientInstance;
+import com.adamdr.holidayservice.service.HolidayInformationService;
+import com.adamdr.holidayservice.service.PublicHolidayService;
+import com.adamdr.holidayservice.web.HolidayInformationController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Startup-optimized mode. Beans are created lazily, except the ones every {@code /v1/holidays-information} request
+ * goes through, and the OpenAPI document generated at build time by {@code gradlew generateOpenApiSpec} is served
+ * instead of letting springfox scan the handlers.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(HolidayInformationController.class, HolidayInformationService.class,
+                PublicHolidayService.class, WebClientInstance.class, SecurityWebFilterChain.class);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> openApiSpec(@Value("${holidaysOpenApi.spec:classpath:openapi/openapi.json}") Resource spec) {
+        return route(GET("/v3/api-docs"), request -> spec.exists()
+                ? ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(spec)
+                : ServerResponse.notFound().build());
+    }
+}
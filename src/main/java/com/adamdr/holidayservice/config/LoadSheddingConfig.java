@@ -0,0 +1,29 @@
+package com.adamdr.holidayservice.config;
+
+import com.adamdr.holidayservice.web.AdaptiveConcurrencyLimiter;
+import com.adamdr.holidayservice.web.LoadSheddingWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "holidaysLoadShedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public LoadSheddingWebFilter loadSheddingWebFilter(MeterRegistry meterRegistry,
+                                                       @Value("${holidaysLoadShedding.initialLimit:100}") int initialLimit,
+                                                       @Value("${holidaysLoadShedding.minLimit:10}") int minLimit,
+                                                       @Value("${holidaysLoadShedding.maxLimit:1000}") int maxLimit,
+                                                       @Value("${holidaysLoadShedding.backoffRatio:0.9}") double backoffRatio,
+                                                       @Value("${holidaysLoadShedding.latencyThreshold:500ms}") Duration latencyThreshold,
+                                                       @Value("${holidaysLoadShedding.maxConcurrencyPerUser:50}") int maxConcurrencyPerUser,
+                                                       @Value("${holidaysLoadShedding.retryAfter:1s}") Duration retryAfter) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold.toNanos());
+        return new LoadSheddingWebFilter(limiter, maxConcurrencyPerUser, retryAfter, meterRegistry);
+    }
+}
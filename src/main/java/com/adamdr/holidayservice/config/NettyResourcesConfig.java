@@ -0,0 +1,54 @@
+package com.adamdr.holidayservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Separate event loops for the inbound server and the Public Holiday API client, so a slow upstream or a large
+ * response can't delay accepting and serving requests, and a bounded scheduler for CPU-heavy work such as decoding
+ * upstream responses. Thread counts of {@code 0} mean the number of available processors. Native epoll is used when
+ * it is on the classpath and {@code preferNative} is set.
+ */
+@Configuration
+public class NettyResourcesConfig {
+
+    private static final String URI_TAG = "/";
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources serverLoopResources(@Value("${holidaysNetty.server.selectThreads:1}") int selectThreads,
+                                             @Value("${holidaysNetty.server.workerThreads:0}") int workerThreads) {
+        return LoopResources.create("holidays-server", selectThreads, threads(workerThreads), true);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources upstreamLoopResources(@Value("${holidaysNetty.upstream.workerThreads:2}") int workerThreads) {
+        return LoopResources.create("holidays-api", threads(workerThreads), true);
+    }
+
+    @Bean
+    public NettyServerCustomizer serverLoopResourcesCustomizer(LoopResources serverLoopResources,
+                                                               @Value("${holidaysNetty.preferNative:true}") boolean preferNative,
+                                                               @Value("${holidaysNetty.metrics:true}") boolean metrics) {
+        return httpServer -> httpServer
+                .runOn(serverLoopResources, preferNative)
+                .metrics(metrics, uri -> URI_TAG);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler computeScheduler(@Value("${holidaysNetty.compute.threads:0}") int threads,
+                                      @Value("${holidaysNetty.metrics:true}") boolean metrics) {
+        if (metrics) {
+            Schedulers.enableMetrics();
+        }
+        return Schedulers.newParallel("holidays-compute", threads(threads), true);
+    }
+
+    private static int threads(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -1,8 +1,17 @@
 package com.adamdr.holidayservice.config;
 
+import com.adamdr.holidayservice.security.CachingReactiveAuthenticationManager;
+import com.adamdr.holidayservice.security.SignedTokenAuthentication;
+import com.adamdr.holidayservice.security.SignedTokenService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
@@ -10,25 +19,63 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
 import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.csrf.CsrfWebFilter;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
 
 @EnableWebFluxSecurity
 public class SecurityConfig{
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String[] STATELESS_API_PATHS = {"/v1/holidays-information/**", "/v1/auth/token"};
+
     @Bean
-    public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http, ReactiveAuthenticationManager authenticationManager,
+                                                      ObjectProvider<SignedTokenService> signedTokenService) {
+        HttpStatusServerEntryPoint entryPoint = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+        signedTokenService.ifAvailable(tokenService -> http.addFilterAt(bearerTokenFilter(tokenService, entryPoint), SecurityWebFiltersOrder.AUTHENTICATION));
         return http
+                .csrf().requireCsrfProtectionMatcher(new AndServerWebExchangeMatcher(CsrfWebFilter.DEFAULT_CSRF_MATCHER,
+                        new NegatedServerWebExchangeMatcher(ServerWebExchangeMatchers.pathMatchers(STATELESS_API_PATHS))))
+                .and()
                 .authorizeExchange()
                 .pathMatchers("/v3/api-docs/**", "/swagger-ui/**", "/conversationalserver/swagger-ui.html",
-                        "/webjars/swagger-ui/**", "/swagger-resources/**")
+                        "/webjars/swagger-ui/**", "/swagger-resources/**", "/actuator/health")
                 .permitAll()
                 .anyExchange().authenticated()
                 .and()
                 .httpBasic()
-                .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+                .authenticationManager(authenticationManager)
+                .authenticationEntryPoint(entryPoint)
                 .and().build();
     }
 
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(MapReactiveUserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                                               Scheduler passwordCheckScheduler,
+                                                               @Value("${holidaysSecurity.credentialCacheTtl:1m}") Duration credentialCacheTtl,
+                                                               @Value("${holidaysSecurity.credentialCacheSize:10000}") long credentialCacheSize) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordCheckScheduler);
+        return new CachingReactiveAuthenticationManager(authenticationManager, credentialCacheTtl, credentialCacheSize);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordCheckScheduler(@Value("${holidaysSecurity.passwordCheckThreads:2}") int passwordCheckThreads,
+                                            @Value("${holidaysSecurity.passwordCheckQueueSize:1000}") int passwordCheckQueueSize) {
+        return Schedulers.newBoundedElastic(passwordCheckThreads, passwordCheckQueueSize, "password-check");
+    }
+
     @Bean
     public MapReactiveUserDetailsService userDetailsService() {
         UserDetails swaggerUi = User
@@ -50,4 +97,14 @@ public class SecurityConfig{
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    private AuthenticationWebFilter bearerTokenFilter(SignedTokenService signedTokenService, HttpStatusServerEntryPoint entryPoint) {
+        ReactiveAuthenticationManager bearerTokenAuthenticationManager = signedTokenService::authenticate;
+        AuthenticationWebFilter bearerTokenFilter = new AuthenticationWebFilter(bearerTokenAuthenticationManager);
+        bearerTokenFilter.setServerAuthenticationConverter(exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(authorization -> authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length()))
+                .map(authorization -> new SignedTokenAuthentication(authorization.substring(BEARER_PREFIX.length()).trim())));
+        bearerTokenFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(entryPoint));
+        return bearerTokenFilter;
+    }
 }
@@ -2,6 +2,7 @@ package com.adamdr.holidayservice.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.*;
@@ -14,6 +15,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Configuration
+@Profile("!fast-startup")
 @EnableSwagger2
 public class SwaggerConfig {
 
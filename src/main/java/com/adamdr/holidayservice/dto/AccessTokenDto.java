@@ -0,0 +1,6 @@
+package com.adamdr.holidayservice.dto;
+
+import lombok.Builder;
+
+@Builder
+public record AccessTokenDto(String accessToken, String tokenType, long expiresIn) {}
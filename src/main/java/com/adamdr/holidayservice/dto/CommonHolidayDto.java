@@ -0,0 +1,9 @@
+package com.adamdr.holidayservice.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Builder
+public record CommonHolidayDto(LocalDate date, Map<String, String> localNames) {}
@@ -0,0 +1,8 @@
+package com.adamdr.holidayservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HolidayBatchResultDto(long index, HolidayDto holiday, String error) {}
@@ -0,0 +1,5 @@
+package com.adamdr.holidayservice.dto;
+
+import java.time.LocalDate;
+
+public record HolidayQueryDto(LocalDate date, String firstCountryCode, String secondCountryCode) {}
@@ -0,0 +1,159 @@
+package com.adamdr.holidayservice.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Count-based circuit breaker for the Public Holiday API. It opens when the failure rate over the last
+ * {@code windowSize} calls crosses {@code failureRateThreshold}, rejects calls for {@code openDuration} and then lets a
+ * single probe through. 4xx responses are answers, not failures, and cancelled calls are not counted.
+ */
+@Component
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationMillis;
+    private final Counter rejectedCalls;
+    private int windowIndex;
+    private int calls;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    @Autowired
+    public CircuitBreaker(MeterRegistry meterRegistry,
+                          @Value("${holidaysApi.circuitBreaker.enabled:true}") boolean enabled,
+                          @Value("${holidaysApi.circuitBreaker.windowSize:50}") int windowSize,
+                          @Value("${holidaysApi.circuitBreaker.minimumCalls:20}") int minimumCalls,
+                          @Value("${holidaysApi.circuitBreaker.failureRateThreshold:50}") int failureRateThreshold,
+                          @Value("${holidaysApi.circuitBreaker.openDuration:30s}") Duration openDuration) {
+        this.enabled = enabled;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDuration.toMillis();
+        this.rejectedCalls = Counter.builder("holidays.api.circuit.rejected")
+                .description("Calls to the Public Holiday API rejected by the open circuit")
+                .register(meterRegistry);
+        Gauge.builder("holidays.api.circuit.state", this, circuitBreaker -> circuitBreaker.state().ordinal())
+                .description("Circuit state of the Public Holiday API: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejectedCalls.increment();
+                return Mono.error(() -> new UpstreamUnavailableException("Public Holiday API is unavailable"));
+            }
+            AtomicBoolean completed = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        completed.set(true);
+                        onSuccess();
+                    })
+                    .doOnError(ex -> {
+                        completed.set(true);
+                        if (ex instanceof NoSuchElementException) {
+                            onSuccess();
+                        } else {
+                            onFailure();
+                        }
+                    })
+                    .doFinally(signalType -> {
+                        if (signalType == SignalType.CANCEL && !completed.get()) {
+                            onCancel();
+                        }
+                    });
+        });
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    private synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+    }
+
+    private synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            failures -= window[windowIndex] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        window[windowIndex] = failure;
+        failures += failure ? 1 : 0;
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probeInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        calls = 0;
+        failures = 0;
+        windowIndex = 0;
+    }
+}
@@ -0,0 +1,152 @@
+package com.adamdr.holidayservice.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Logs one record per Public Holiday API exchange. Records are handed to a bounded queue and written by a daemon
+ * thread, so the event loop never formats or writes log lines. Successful exchanges are sampled with
+ * {@code sampleRate}, failed ones are always logged, and records are dropped when the queue is full.
+ */
+@Slf4j
+@Component
+public class ExchangeLogger {
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    public record Exchange(String method, String uriTemplate, int status, long latencyNanos, long bytes, String error) {
+
+        boolean failed() {
+            return error != null || status >= 400;
+        }
+    }
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final BlockingQueue<Exchange> exchanges;
+    private final Consumer<Exchange> sink;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread drainThread;
+
+    @Autowired
+    public ExchangeLogger(@Value("${holidaysApi.exchangeLog.enabled:true}") boolean enabled,
+                          @Value("${holidaysApi.exchangeLog.sampleRate:0.01}") double sampleRate,
+                          @Value("${holidaysApi.exchangeLog.bufferSize:1024}") int bufferSize) {
+        this(enabled, sampleRate, bufferSize, ExchangeLogger::write);
+    }
+
+    ExchangeLogger(boolean enabled, double sampleRate, int bufferSize, Consumer<Exchange> sink) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.exchanges = new ArrayBlockingQueue<>(bufferSize);
+        this.sink = sink;
+        this.drainThread = new Thread(this::drain, "holidays-api-exchange-log");
+        this.drainThread.setDaemon(true);
+        if (enabled) {
+            this.drainThread.start();
+        }
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            if (!enabled) {
+                return next.exchange(request);
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnError(ex -> submit(exchange(request, 0, start, -1, ex.getClass().getSimpleName())))
+                    .map(response -> response.rawStatusCode() >= 400
+                            ? logged(request, response, start)
+                            : response.mutate().body(body -> countBytes(body, request, response, start)).build());
+        };
+    }
+
+    private ClientResponse logged(ClientRequest request, ClientResponse response, long start) {
+        submit(exchange(request, response.rawStatusCode(), start, response.headers().contentLength().orElse(-1), null));
+        return response;
+    }
+
+    private Flux<DataBuffer> countBytes(Flux<DataBuffer> body, ClientRequest request, ClientResponse response, long start) {
+        AtomicLong bytes = new AtomicLong();
+        return body
+                .doOnNext(dataBuffer -> bytes.addAndGet(dataBuffer.readableByteCount()))
+                .doOnError(ex -> submit(exchange(request, response.rawStatusCode(), start, bytes.get(), ex.getClass().getSimpleName())))
+                .doOnComplete(() -> submit(exchange(request, response.rawStatusCode(), start, bytes.get(), null)))
+                .doOnCancel(() -> submit(exchange(request, response.rawStatusCode(), start, bytes.get(), "Cancelled")));
+    }
+
+    private static Exchange exchange(ClientRequest request, int status, long start, long bytes, String error) {
+        String uriTemplate = request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(Object::toString)
+                .orElseGet(() -> request.url().getPath());
+        return new Exchange(request.method().name(), uriTemplate, status, System.nanoTime() - start, bytes, error);
+    }
+
+    void submit(Exchange exchange) {
+        if ((exchange.failed() || ThreadLocalRandom.current().nextDouble() < sampleRate) && !exchanges.offer(exchange)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<Exchange> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        long reportedDropped = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(exchanges.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            exchanges.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+            batch.forEach(this::accept);
+            batch.clear();
+            long totalDropped = dropped.get();
+            if (totalDropped > reportedDropped) {
+                log.warn("Dropped {} upstream exchange records, exchange log buffer is full", totalDropped - reportedDropped);
+                reportedDropped = totalDropped;
+            }
+        }
+    }
+
+    private void accept(Exchange exchange) {
+        try {
+            sink.accept(exchange);
+        } catch (RuntimeException e) {
+            log.warn("Can't write upstream exchange record: {}", e.getMessage());
+        }
+    }
+
+    private static void write(Exchange exchange) {
+        log.info("upstream method={} uri={} status={} latencyMs={} bytes={} error={}", exchange.method(), exchange.uriTemplate(),
+                exchange.status(), TimeUnit.NANOSECONDS.toMillis(exchange.latencyNanos()), exchange.bytes(), exchange.error());
+    }
+
+    @PreDestroy
+    void stop() {
+        drainThread.interrupt();
+    }
+}
@@ -0,0 +1,57 @@
+package com.adamdr.holidayservice.http;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Estimates how long to wait before hedging a Public Holiday API call as a percentile of recent successful call
+ * latencies, bounded by {@code minDelay} and {@code maxDelay}. Until enough samples are recorded {@code maxDelay} is
+ * used.
+ */
+@Component
+public class HedgeDelayEstimator {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] latencies;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private int index;
+    private int count;
+    private int recordedSinceRecompute;
+    private volatile long delayNanos;
+
+    @Autowired
+    public HedgeDelayEstimator(@Value("${holidaysApi.hedging.samples:512}") int samples,
+                               @Value("${holidaysApi.hedging.percentile:95}") double percentile,
+                               @Value("${holidaysApi.hedging.minDelay:50ms}") Duration minDelay,
+                               @Value("${holidaysApi.hedging.maxDelay:1s}") Duration maxDelay) {
+        this.latencies = new long[samples];
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.delayNanos = maxDelayNanos;
+    }
+
+    public Duration delay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public synchronized void record(long latencyNanos) {
+        latencies[index] = latencyNanos;
+        index = (index + 1) % latencies.length;
+        count = Math.min(count + 1, latencies.length);
+        if (++recordedSinceRecompute >= RECOMPUTE_EVERY) {
+            recordedSinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long estimate = sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(percentile / 100 * count) - 1))];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, estimate));
+        }
+    }
+}
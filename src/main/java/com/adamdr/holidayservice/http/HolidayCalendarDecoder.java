@@ -0,0 +1,189 @@
+package com.adamdr.holidayservice.http;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Decodes the Public Holiday API response as its buffers arrive, straight into a {@link HolidayCalendar}. Only
+ * {@code date}, {@code localName}, {@code name} and {@code countryCode} are read, every other value is skipped
+ * without being materialized. Buffers are parsed on the compute scheduler, off the event loop that received them.
+ */
+@Component
+public class HolidayCalendarDecoder {
+
+    private static final int PREFETCH = 4;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int chunkSize;
+    private final long maxBodySize;
+    private final Scheduler scheduler;
+
+    @Autowired
+    public HolidayCalendarDecoder(@Value("${holidaysApi.decoder.chunkSize:8192}") int chunkSize,
+                                  @Value("${holidaysApi.decoder.maxBodySize:1048576}") long maxBodySize,
+                                  @Qualifier("computeScheduler") ObjectProvider<Scheduler> computeScheduler) {
+        this(chunkSize, maxBodySize, computeScheduler.getIfAvailable(Schedulers::immediate));
+    }
+
+    public HolidayCalendarDecoder(int chunkSize, long maxBodySize) {
+        this(chunkSize, maxBodySize, Schedulers.immediate());
+    }
+
+    private HolidayCalendarDecoder(int chunkSize, long maxBodySize, Scheduler scheduler) {
+        this.chunkSize = chunkSize;
+        this.maxBodySize = maxBodySize;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<HolidayCalendar> decode(Flux<DataBuffer> body, HolidayCalendarKey key) {
+        return Mono.defer(() -> {
+            DecodingState decodingState = new DecodingState(key);
+            return body
+                    .publishOn(scheduler, PREFETCH)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doOnNext(dataBuffer -> {
+                        try {
+                            decodingState.feed(dataBuffer);
+                        } finally {
+                            DataBufferUtils.release(dataBuffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(decodingState::finish));
+        });
+    }
+
+    private final class DecodingState {
+
+        private final HolidayCalendarKey key;
+        private final HolidayCalendar.Builder builder;
+        private final JsonParser parser;
+        private final byte[] chunk = new byte[chunkSize];
+        private long bodySize;
+        private int depth;
+        private String field;
+        private String date;
+        private String localName;
+        private String name;
+        private String countryCode;
+
+        private DecodingState(HolidayCalendarKey key) {
+            this.key = key;
+            this.builder = HolidayCalendar.builder(key.countryCode(), key.year());
+            try {
+                this.parser = jsonFactory.createNonBlockingByteArrayParser();
+            } catch (IOException ex) {
+                throw new DecodingException("Can't create JSON parser", ex);
+            }
+        }
+
+        void feed(DataBuffer dataBuffer) {
+            bodySize += dataBuffer.readableByteCount();
+            if (bodySize > maxBodySize) {
+                throw new DataBufferLimitException("Response from Public Holiday API exceeds " + maxBodySize + " bytes");
+            }
+            ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            while (dataBuffer.readableByteCount() > 0) {
+                int length = Math.min(chunk.length, dataBuffer.readableByteCount());
+                dataBuffer.read(chunk, 0, length);
+                try {
+                    feeder.feedInput(chunk, 0, length);
+                    drain();
+                } catch (IOException ex) {
+                    throw new DecodingException("Malformed response from Public Holiday API", ex);
+                }
+            }
+        }
+
+        HolidayCalendar finish() {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+            try (parser) {
+                drain();
+            } catch (IOException ex) {
+                throw new DecodingException("Malformed response from Public Holiday API", ex);
+            }
+            if (depth != 0) {
+                throw new DecodingException("Truncated response from Public Holiday API");
+            }
+            return builder.build();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> {
+                        depth++;
+                        if (depth == 1 && token != JsonToken.START_ARRAY) {
+                            throw new DecodingException("Expected an array of holidays from Public Holiday API");
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        if (depth == 2 && token == JsonToken.END_OBJECT) {
+                            addHoliday();
+                        }
+                        depth--;
+                    }
+                    case FIELD_NAME -> {
+                        if (depth == 2) {
+                            field = parser.getCurrentName();
+                        }
+                    }
+                    case VALUE_STRING -> {
+                        if (depth == 2) {
+                            readField();
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        private void readField() throws IOException {
+            switch (field) {
+                case "date" -> date = parser.getText();
+                case "localName" -> localName = parser.getText();
+                case "name" -> name = parser.getText();
+                case "countryCode" -> countryCode = parser.getText();
+                default -> {
+                }
+            }
+        }
+
+        private void addHoliday() {
+            if (date != null && (countryCode == null || countryCode.equalsIgnoreCase(key.countryCode()))) {
+                try {
+                    builder.add(LocalDate.parse(date), localName, name);
+                } catch (DateTimeParseException ex) {
+                    throw new DecodingException("Malformed holiday date from Public Holiday API: " + date, ex);
+                }
+            }
+            field = null;
+            date = null;
+            localName = null;
+            name = null;
+            countryCode = null;
+        }
+    }
+}
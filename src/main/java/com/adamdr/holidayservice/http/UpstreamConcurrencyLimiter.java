@@ -0,0 +1,106 @@
+package com.adamdr.holidayservice.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Hard cap on concurrent Public Holiday API calls, hedged calls included, so the upstream quota is never exceeded.
+ * Calls over {@code maxConcurrency} wait in a FIFO queue of {@code maxQueueSize}; when the queue is full they fail
+ * with {@link UpstreamUnavailableException} right away.
+ */
+@Component
+public class UpstreamConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final int maxQueueSize;
+    private final Deque<Sinks.One<Boolean>> waiting = new ArrayDeque<>();
+    private final Counter rejectedCalls;
+    private int inFlight;
+
+    @Autowired
+    public UpstreamConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${holidaysApi.limiter.enabled:true}") boolean enabled,
+                                      @Value("${holidaysApi.limiter.maxConcurrency:50}") int maxConcurrency,
+                                      @Value("${holidaysApi.limiter.maxQueueSize:500}") int maxQueueSize) {
+        this.enabled = enabled;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.rejectedCalls = Counter.builder("holidays.api.limiter.rejected")
+                .description("Calls to the Public Holiday API rejected because the wait queue was full")
+                .register(meterRegistry);
+        Gauge.builder("holidays.api.limiter.inflight", this, UpstreamConcurrencyLimiter::inFlight)
+                .description("Calls to the Public Holiday API in flight")
+                .register(meterRegistry);
+        Gauge.builder("holidays.api.limiter.queued", this, UpstreamConcurrencyLimiter::queued)
+                .description("Calls to the Public Holiday API waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("holidays.api.limiter.limit", () -> maxConcurrency)
+                .description("Maximum concurrent calls to the Public Holiday API")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return acquire().flatMap(permit -> call.doFinally(signalType -> release()));
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (inFlight < maxConcurrency) {
+                    inFlight++;
+                    return Mono.just(Boolean.TRUE);
+                }
+                if (waiting.size() >= maxQueueSize) {
+                    rejectedCalls.increment();
+                    return Mono.error(new UpstreamUnavailableException("Public Holiday API concurrency limit reached"));
+                }
+                Sinks.One<Boolean> permit = Sinks.one();
+                waiting.addLast(permit);
+                return permit.asMono().doOnCancel(() -> cancel(permit));
+            }
+        });
+    }
+
+    private void cancel(Sinks.One<Boolean> permit) {
+        boolean handedOver;
+        synchronized (this) {
+            handedOver = !waiting.remove(permit);
+        }
+        if (handedOver) {
+            release();
+        }
+    }
+
+    private void release() {
+        Sinks.One<Boolean> next;
+        synchronized (this) {
+            next = waiting.pollFirst();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        next.tryEmitValue(Boolean.TRUE);
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return waiting.size();
+    }
+}
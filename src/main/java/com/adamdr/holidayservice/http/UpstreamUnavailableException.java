@@ -0,0 +1,8 @@
+package com.adamdr.holidayservice.http;
+
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
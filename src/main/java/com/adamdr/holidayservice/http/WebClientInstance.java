@@ -1,71 +1,86 @@
 package com.adamdr.holidayservice.http;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
-import javax.net.ssl.SSLException;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
 
-@Slf4j
 @Component
 public class WebClientInstance {
 
+    private static final String UPSTREAM_URI_TAG = "/{year}/{countryCode}";
+
+    private final ConnectionProvider connectionProvider;
     private final WebClient webClient;
 
-    private WebClientInstance(ObjectMapper objectMapper) throws SSLException {
-        SslContext context = SslContextBuilder.forClient()
-                .trustManager(InsecureTrustManagerFactory.INSTANCE)
+    private WebClientInstance(ExchangeLogger exchangeLogger,
+                              @Qualifier("upstreamLoopResources") ObjectProvider<LoopResources> upstreamLoopResources,
+                              @Value("${holidaysNetty.preferNative:true}") boolean preferNative,
+                              @Value("${holidaysNetty.metrics:true}") boolean metrics,
+                              @Value("${holidaysApi.pool.maxConnections:100}") int maxConnections,
+                              @Value("${holidaysApi.pool.pendingAcquireMaxCount:1000}") int pendingAcquireMaxCount,
+                              @Value("${holidaysApi.pool.pendingAcquireTimeout:5s}") Duration pendingAcquireTimeout,
+                              @Value("${holidaysApi.pool.maxIdleTime:30s}") Duration maxIdleTime,
+                              @Value("${holidaysApi.pool.maxLifeTime:5m}") Duration maxLifeTime,
+                              @Value("${holidaysApi.pool.evictionInterval:30s}") Duration evictionInterval,
+                              @Value("${holidaysApi.connectTimeout:2s}") Duration connectTimeout,
+                              @Value("${holidaysApi.responseTimeout:5s}") Duration responseTimeout,
+                              @Value("${holidaysApi.keepAlive:true}") boolean keepAlive,
+                              @Value("${holidaysApi.tcpNoDelay:true}") boolean tcpNoDelay,
+                              @Value("${holidaysApi.http2:false}") boolean http2,
+                              @Value("${holidaysApi.compress:true}") boolean compress) {
+        this.connectionProvider = ConnectionProvider.builder("holidays-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .metrics(metrics)
                 .build();
 
-        HttpClient httpClient = HttpClient.create().secure(t -> t.sslContext(context));
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+                .responseTimeout(responseTimeout)
+                .compress(compress)
+                .metrics(metrics, uri -> UPSTREAM_URI_TAG);
+        LoopResources loopResources = upstreamLoopResources.getIfAvailable();
+        if (loopResources != null) {
+            httpClient = httpClient.runOn(loopResources, preferNative);
+        }
+        if (http2) {
+            httpClient = httpClient
+                    .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    .secure(sslContextSpec -> sslContextSpec.sslContext(Http2SslContextSpec.forClient()));
+        } else {
+            httpClient = httpClient.secure();
+        }
 
         this.webClient = WebClient.builder()
-                .exchangeStrategies(ExchangeStrategies.builder()
-                        .codecs(clientCodecConfigurer -> {
-                            clientCodecConfigurer.defaultCodecs().maxInMemorySize(200 * 1024 * 1024);
-                            clientCodecConfigurer.customCodecs().register(new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_OCTET_STREAM));
-                        })
-                        .build())
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .filters(exchangeFilterFunctions -> {
-                    exchangeFilterFunctions.add(logRequest());
-                    exchangeFilterFunctions.add(logResponse());
-                })
+                .filter(exchangeLogger.filter())
                 .build();
     }
 
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            log.debug("Request: {} {}", clientRequest.method(), clientRequest.url());
-            clientRequest.headers().forEach((name, values) -> values.forEach(value -> log.debug("{}={}", name, value)));
-            log.debug("-------------------------------------------------------------");
-            return Mono.just(clientRequest);
-        });
-    }
-
-    private ExchangeFilterFunction logResponse() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-            log.debug("Response: {}", clientResponse.rawStatusCode());
-            clientResponse.headers().asHttpHeaders().forEach((name, values) -> values.forEach(value -> log.debug("{}={}", name, value)));
-            log.debug("-------------------------------------------------------------");
-            return Mono.just(clientResponse);
-        });
+    @PreDestroy
+    void dispose() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
     }
 
     public WebClient getWebClient() {
         return webClient;
     }
 }
-
-
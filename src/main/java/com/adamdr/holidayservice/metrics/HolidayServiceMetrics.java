@@ -0,0 +1,94 @@
+package com.adamdr.holidayservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Meters of the holiday lookups. Tags are bounded: upstream timers are tagged with validated ISO country codes and
+ * an {@link Outcome}, and are registered once per country and then reused.
+ */
+@Component
+public class HolidayServiceMetrics {
+
+    public enum Outcome { SUCCESS, CLIENT_ERROR, SERVER_ERROR, IO_ERROR, DECODE_ERROR }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer[]> upstreamTimers = new ConcurrentHashMap<>();
+    private final Counter countryCodeValidationFailures;
+    private final Counter dateValidationFailures;
+    private final Counter dateRangeValidationFailures;
+    private final Counter notFound;
+
+    public HolidayServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.countryCodeValidationFailures = validationFailures("country_code");
+        this.dateValidationFailures = validationFailures("date");
+        this.dateRangeValidationFailures = validationFailures("date_range");
+        this.notFound = Counter.builder("holidays.not.found")
+                .description("Lookups without a common holiday within the search horizon")
+                .register(meterRegistry);
+    }
+
+    public void recordUpstreamCall(String countryCode, Outcome outcome, long durationNanos) {
+        upstreamTimers.computeIfAbsent(countryCode, this::registerUpstreamTimers)[outcome.ordinal()]
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Outcome outcome(Throwable ex) {
+        if (ex instanceof NoSuchElementException) {
+            return Outcome.CLIENT_ERROR;
+        } else if (ex instanceof WebClientRequestException || ex instanceof TimeoutException) {
+            return Outcome.IO_ERROR;
+        } else if (ex instanceof CodecException || ex instanceof DataBufferLimitException) {
+            return Outcome.DECODE_ERROR;
+        }
+        return Outcome.SERVER_ERROR;
+    }
+
+    public void countryCodeValidationFailed() {
+        countryCodeValidationFailures.increment();
+    }
+
+    public void dateValidationFailed() {
+        dateValidationFailures.increment();
+    }
+
+    public void dateRangeValidationFailed() {
+        dateRangeValidationFailures.increment();
+    }
+
+    public void notFound() {
+        notFound.increment();
+    }
+
+    private Counter validationFailures(String reason) {
+        return Counter.builder("holidays.validation.failures")
+                .description("Requests rejected by validation")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private Timer[] registerUpstreamTimers(String countryCode) {
+        Outcome[] outcomes = Outcome.values();
+        Timer[] timers = new Timer[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            timers[outcome.ordinal()] = Timer.builder("holidays.api.requests")
+                    .description("Calls to the Public Holiday API")
+                    .tag("country", countryCode)
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+}
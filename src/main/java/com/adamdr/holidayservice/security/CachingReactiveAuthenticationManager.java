@@ -0,0 +1,50 @@
+package com.adamdr.holidayservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers successfully verified username and password pairs for a short time, so repeated HTTP Basic calls skip the
+ * password hash check. Pairs are keyed by their HMAC under a per-process random key, the password is never kept.
+ */
+public class CachingReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final Cache<String, Authentication> verifiedCredentials;
+    private final Hmac hmac = Hmac.withRandomKey();
+
+    public CachingReactiveAuthenticationManager(ReactiveAuthenticationManager delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.verifiedCredentials = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken) || authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        String key = key(authentication.getName(), authentication.getCredentials().toString());
+        Authentication verified = verifiedCredentials.getIfPresent(key);
+        if (verified != null) {
+            return Mono.just(verified);
+        }
+        return delegate.authenticate(authentication)
+                .doOnNext(authenticated -> verifiedCredentials.put(key, authenticated));
+    }
+
+    private String key(String username, String password) {
+        byte[] credentials = (username + '\0' + password).getBytes(StandardCharsets.UTF_8);
+        return Base64.getEncoder().encodeToString(hmac.sign(credentials));
+    }
+}
@@ -0,0 +1,39 @@
+package com.adamdr.holidayservice.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * HMAC-SHA256 with one {@link Mac} per thread, so signing does not allocate a new instance or contend on a lock.
+ */
+final class Hmac {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    Hmac(byte[] key) {
+        SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(secretKey);
+                return instance;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Can't initialize " + ALGORITHM, ex);
+            }
+        });
+    }
+
+    static Hmac withRandomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new Hmac(key);
+    }
+
+    byte[] sign(byte[] data) {
+        return mac.get().doFinal(data);
+    }
+}
@@ -0,0 +1,39 @@
+package com.adamdr.holidayservice.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bearer token before verification, and the caller it identifies after verification by {@link SignedTokenService}.
+ */
+public class SignedTokenAuthentication extends AbstractAuthenticationToken {
+
+    private final String token;
+    private final String username;
+
+    public SignedTokenAuthentication(String token) {
+        super(List.of());
+        this.token = token;
+        this.username = null;
+    }
+
+    SignedTokenAuthentication(String token, String username, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.token = token;
+        this.username = username;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+}
@@ -0,0 +1,97 @@
+package com.adamdr.holidayservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived stateless tokens of the form {@code payload.signature}, where the payload is
+ * {@code username|expiresAt|authorities} and the signature its HMAC-SHA256. Enabled with
+ * {@code holidaysSecurity.tokenEnabled}, which requires {@code holidaysSecurity.tokenSecret} shared by all instances.
+ * It deliberately isn't a {@code ReactiveAuthenticationManager} bean, so it can't be injected in place of the Basic
+ * credentials manager.
+ */
+@Service
+@ConditionalOnProperty(name = "holidaysSecurity.tokenEnabled", havingValue = "true")
+public class SignedTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Hmac hmac;
+    private final Duration tokenTtl;
+    private final Clock clock;
+
+    @Autowired
+    public SignedTokenService(@Value("${holidaysSecurity.tokenSecret:}") String tokenSecret,
+                              @Value("${holidaysSecurity.tokenTtl:15m}") Duration tokenTtl) {
+        this(tokenSecret, tokenTtl, Clock.systemUTC());
+    }
+
+    SignedTokenService(String tokenSecret, Duration tokenTtl, Clock clock) {
+        if (tokenSecret.isBlank()) {
+            throw new IllegalStateException("holidaysSecurity.tokenSecret is required when holidaysSecurity.tokenEnabled is set");
+        }
+        this.hmac = new Hmac(tokenSecret.getBytes(StandardCharsets.UTF_8));
+        this.tokenTtl = tokenTtl;
+        this.clock = clock;
+    }
+
+    public Duration tokenTtl() {
+        return tokenTtl;
+    }
+
+    public String issue(Authentication authentication) {
+        long expiresAt = clock.instant().plus(tokenTtl).getEpochSecond();
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        byte[] payload = (authentication.getName() + '|' + expiresAt + '|' + authorities).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + '.' + ENCODER.encodeToString(hmac.sign(payload));
+    }
+
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.fromCallable(() -> verify(authentication.getCredentials().toString()));
+    }
+
+    Authentication verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        if (!MessageDigest.isEqual(hmac.sign(payload), signature)) {
+            throw new BadCredentialsException("Invalid token signature");
+        }
+        String[] claims = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+        if (claims.length != 3 || Long.parseLong(claims[1]) <= clock.instant().getEpochSecond()) {
+            throw new BadCredentialsException("Token expired");
+        }
+        List<GrantedAuthority> authorities = claims[2].isEmpty() ? List.of() : Arrays.stream(claims[2].split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new SignedTokenAuthentication(token, claims[0], authorities);
+    }
+}
@@ -0,0 +1,164 @@
+package com.adamdr.holidayservice.service;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarCache;
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.CommonHolidayTable;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.calendar.HolidayCalendarUpdatedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Year;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a {@link CommonHolidayTable} of all countries known to the Public Holiday API for the current year and the
+ * following {@code yearsAhead} years. Tables are built once the calendars of a year are loaded and updated
+ * incrementally when a calendar is fetched again. Every {@code rolloverCheckInterval} missing years are built and past
+ * years dropped, so the tables follow the calendar year.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "holidaysPairTable.enabled", havingValue = "true")
+public class CommonHolidayTableService {
+
+    private final PublicHolidayService publicHolidayService;
+    private final HolidayCalendarCache holidayCalendarCache;
+    private final Map<Integer, CommonHolidayTable> tables = new ConcurrentHashMap<>();
+    private final ForkJoinPool forkJoinPool;
+    private final Timer buildTimer;
+    private final int yearsAhead;
+    private final int loadConcurrency;
+    private final Duration rolloverCheckInterval;
+    private Disposable tableMaintenance;
+
+    @Autowired
+    public CommonHolidayTableService(PublicHolidayService publicHolidayService, HolidayCalendarCache holidayCalendarCache, MeterRegistry meterRegistry,
+                                     @Value("${holidaysPairTable.yearsAhead:1}") int yearsAhead,
+                                     @Value("${holidaysPairTable.loadConcurrency:8}") int loadConcurrency,
+                                     @Value("${holidaysPairTable.parallelism:0}") int parallelism,
+                                     @Value("${holidaysPairTable.rolloverCheckInterval:1h}") Duration rolloverCheckInterval) {
+        this.publicHolidayService = publicHolidayService;
+        this.holidayCalendarCache = holidayCalendarCache;
+        this.rolloverCheckInterval = rolloverCheckInterval;
+        this.forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.yearsAhead = yearsAhead;
+        this.loadConcurrency = loadConcurrency;
+        this.buildTimer = Timer.builder("holidays.pair.table.build")
+                .description("Time to build a common holiday table of all country pairs")
+                .register(meterRegistry);
+        Gauge.builder("holidays.pair.table.bytes", tables, t -> t.values().stream().mapToLong(CommonHolidayTable::sizeInBytes).sum())
+                .description("Memory used by the offsets and days of all common holiday tables")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public CommonHolidayTable table(int year) {
+        return tables.get(year);
+    }
+
+    /**
+     * Answers served from a table don't read the calendar cache, so the access is recorded there to keep the
+     * calendars behind the table in refresh-ahead.
+     */
+    public void recordAccess(int year, List<String> countryCodes) {
+        countryCodes.forEach(countryCode -> holidayCalendarCache.recordAccess(new HolidayCalendarKey(countryCode, year)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildTables() {
+        tableMaintenance = Flux.interval(Duration.ZERO, rolloverCheckInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> maintainTables())
+                .subscribe(table -> log.info("Common holiday table for {} built: {} countries, {} bytes", table.year(), table.countries(), table.sizeInBytes()));
+    }
+
+    @EventListener
+    public void onHolidayCalendarUpdated(HolidayCalendarUpdatedEvent event) {
+        HolidayCalendar holidayCalendar = event.holidayCalendar();
+        if (tables.containsKey(holidayCalendar.year())) {
+            forkJoinPool.execute(() -> updateTable(holidayCalendar));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (tableMaintenance != null) {
+            tableMaintenance.dispose();
+        }
+        forkJoinPool.shutdownNow();
+    }
+
+    private Flux<CommonHolidayTable> maintainTables() {
+        int currentYear = Year.now().getValue();
+        tables.keySet().removeIf(year -> year < currentYear);
+        return Flux.range(currentYear, yearsAhead + 1)
+                .filter(year -> !tables.containsKey(year))
+                .concatMap(this::buildTable)
+                .onErrorResume(ex -> {
+                    log.warn("Can't build common holiday tables: {}", ex.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * The table is rebuilt outside the map and swapped in only if no other update replaced it meanwhile, otherwise
+     * the update is applied again on top of the newer table.
+     */
+    private void updateTable(HolidayCalendar holidayCalendar) {
+        CommonHolidayTable table = tables.get(holidayCalendar.year());
+        while (table != null) {
+            CommonHolidayTable current = table;
+            CommonHolidayTable updated = timed(() -> current.withCalendar(holidayCalendar, forkJoinPool));
+            if (tables.replace(holidayCalendar.year(), current, updated)) {
+                return;
+            }
+            table = tables.get(holidayCalendar.year());
+        }
+    }
+
+    private Mono<CommonHolidayTable> buildTable(int year) {
+        return Flux.fromArray(Locale.getISOCountries())
+                .flatMap(countryCode -> publicHolidayService.getHolidayCalendar(year, countryCode)
+                        .filter(holidayCalendar -> holidayCalendar.size() > 0)
+                        .onErrorResume(ex -> Mono.empty()), loadConcurrency)
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(holidayCalendars -> buildTable(year, holidayCalendars));
+    }
+
+    private CommonHolidayTable buildTable(int year, List<HolidayCalendar> holidayCalendars) {
+        CommonHolidayTable table = timed(() -> CommonHolidayTable.build(year, holidayCalendars, forkJoinPool));
+        tables.put(year, table);
+        return table;
+    }
+
+    private CommonHolidayTable timed(Supplier<CommonHolidayTable> build) {
+        long start = System.nanoTime();
+        CommonHolidayTable table = build.get();
+        long duration = System.nanoTime() - start;
+        buildTimer.record(duration, TimeUnit.NANOSECONDS);
+        log.debug("Common holiday table for {} built in {} ms", table.year(), TimeUnit.NANOSECONDS.toMillis(duration));
+        return table;
+    }
+}
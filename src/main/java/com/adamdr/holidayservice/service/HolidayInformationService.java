@@ -1,11 +1,22 @@
 package com.adamdr.holidayservice.service;
 
+import com.adamdr.holidayservice.dto.CommonHolidayDto;
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
+import com.adamdr.holidayservice.dto.HolidayQueryDto;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public interface HolidayInformationService {
 
     Mono<HolidayDto> getHolidayInformation(LocalDate date, String firstCountryCode, String secondCountryCode);
+
+    Flux<HolidayBatchResultDto> getHolidayInformation(Flux<HolidayQueryDto> holidayQueries);
+
+    Mono<CommonHolidayDto> getCommonHolidayInformation(LocalDate date, List<String> countryCodes);
+
+    Flux<CommonHolidayDto> getCommonHolidays(LocalDate from, LocalDate to, List<String> countryCodes);
 }
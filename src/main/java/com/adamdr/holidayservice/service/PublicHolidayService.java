@@ -1,11 +1,21 @@
 package com.adamdr.holidayservice.service;
 
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
 import com.adamdr.holidayservice.dto.PublicHolidayDto;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 
 public interface PublicHolidayService {
 
-    Flux<PublicHolidayDto> getPublicHolidaysForCountryAfterGivenDate(LocalDate date, String countryCode);
+    Mono<HolidayCalendar> getHolidayCalendar(int year, String countryCode);
+
+    default Flux<PublicHolidayDto> getPublicHolidaysForCountryAfterGivenDate(LocalDate date, String countryCode) {
+        return getHolidayCalendar(date.getYear(), countryCode)
+                .flatMapIterable(HolidayCalendar::toPublicHolidays)
+                .filter(publicHolidayDto -> publicHolidayDto.date().isAfter(date))
+                .switchIfEmpty(Flux.defer(() -> getHolidayCalendar(date.getYear() + 1, countryCode)
+                        .flatMapIterable(HolidayCalendar::toPublicHolidays)));
+    }
 }
@@ -0,0 +1,92 @@
+package com.adamdr.holidayservice.service.impl;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.service.PublicHolidayService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves calendars from {@link RuleBasedPublicHolidayService} when it has rules for the country and year, otherwise
+ * from the Public Holiday API. In verification mode, on unless {@code holidaysRules.verify} is false, every computed
+ * calendar is also fetched from the API once, in the background, and any difference is logged and counted in
+ * {@code holidays.rules.mismatches}. The rules cover national holidays only, while the API also lists regional ones,
+ * so it is opt-in via {@code holidaysRules.enabled}.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(name = "holidaysRules.enabled", havingValue = "true")
+public class CompositePublicHolidayService implements PublicHolidayService {
+
+    private final RuleBasedPublicHolidayService ruleBasedPublicHolidayService;
+    private final PublicHolidayServiceImpl publicHolidayServiceImpl;
+    private final MeterRegistry meterRegistry;
+    private final boolean verify;
+    private final Set<HolidayCalendarKey> verified = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CompositePublicHolidayService(RuleBasedPublicHolidayService ruleBasedPublicHolidayService, PublicHolidayServiceImpl publicHolidayServiceImpl,
+                                         MeterRegistry meterRegistry, @Value("${holidaysRules.verify:true}") boolean verify) {
+        this.ruleBasedPublicHolidayService = ruleBasedPublicHolidayService;
+        this.publicHolidayServiceImpl = publicHolidayServiceImpl;
+        this.meterRegistry = meterRegistry;
+        this.verify = verify;
+    }
+
+    @Override
+    public Mono<HolidayCalendar> getHolidayCalendar(int year, String countryCode) {
+        if (!ruleBasedPublicHolidayService.supports(year, countryCode)) {
+            return publicHolidayServiceImpl.getHolidayCalendar(year, countryCode);
+        }
+        Mono<HolidayCalendar> holidayCalendar = ruleBasedPublicHolidayService.getHolidayCalendar(year, countryCode);
+        return verify ? holidayCalendar.doOnNext(this::verify) : holidayCalendar;
+    }
+
+    private void verify(HolidayCalendar computed) {
+        if (!verified.add(new HolidayCalendarKey(computed.countryCode(), computed.year()))) {
+            return;
+        }
+        publicHolidayServiceImpl.getHolidayCalendar(computed.year(), computed.countryCode())
+                .subscribe(upstream -> {
+                    List<String> differences = differences(computed, upstream);
+                    if (!differences.isEmpty()) {
+                        Counter.builder("holidays.rules.mismatches")
+                                .description("Holiday calendars computed from rules that differ from the Public Holiday API")
+                                .tag("country", computed.countryCode())
+                                .register(meterRegistry)
+                                .increment();
+                        log.warn("Holiday rules for {} {} differ from the Public Holiday API: {}", computed.countryCode(), computed.year(), differences);
+                    }
+                }, ex -> log.warn("Can't verify holiday rules for {} {}: {}", computed.countryCode(), computed.year(), ex.getMessage()));
+    }
+
+    private static List<String> differences(HolidayCalendar computed, HolidayCalendar upstream) {
+        List<PublicHolidayDto> computedHolidays = computed.toPublicHolidays();
+        List<PublicHolidayDto> upstreamHolidays = upstream.toPublicHolidays();
+        Set<PublicHolidayDto> common = new HashSet<>(computedHolidays);
+        common.retainAll(upstreamHolidays);
+        List<String> differences = new ArrayList<>();
+        computedHolidays.stream()
+                .filter(holiday -> !common.contains(holiday))
+                .forEach(holiday -> differences.add("+" + holiday.date() + " " + holiday.localName() + " / " + holiday.name()));
+        upstreamHolidays.stream()
+                .filter(holiday -> !common.contains(holiday))
+                .forEach(holiday -> differences.add("-" + holiday.date() + " " + holiday.localName() + " / " + holiday.name()));
+        return differences;
+    }
+}
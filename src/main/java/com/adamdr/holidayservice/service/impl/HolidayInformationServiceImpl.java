@@ -1,60 +1,236 @@
 package com.adamdr.holidayservice.service.impl;
 
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.CommonHolidayTable;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.CommonHolidayDto;
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
-import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.dto.HolidayQueryDto;
+import com.adamdr.holidayservice.metrics.HolidayServiceMetrics;
+import com.adamdr.holidayservice.service.CommonHolidayTableService;
 import com.adamdr.holidayservice.service.HolidayInformationService;
 import com.adamdr.holidayservice.service.PublicHolidayService;
 import com.adamdr.holidayservice.utils.IsoUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class HolidayInformationServiceImpl implements HolidayInformationService {
 
     private final PublicHolidayService publicHolidayService;
+    private final HolidayServiceMetrics holidayServiceMetrics;
+    private final CommonHolidayTableService commonHolidayTableService;
+    private final int maxCountries;
+    private final int maxConcurrency;
+    private final int batchConcurrency;
+    private final int maxRangeYears;
+    private final int searchHorizonYears;
+    private final int speculativeWindowDays;
 
     @Autowired
-    public HolidayInformationServiceImpl(PublicHolidayService publicHolidayService) {
+    public HolidayInformationServiceImpl(PublicHolidayService publicHolidayService, HolidayServiceMetrics holidayServiceMetrics,
+                                         ObjectProvider<CommonHolidayTableService> commonHolidayTableService,
+                                         @Value("${holidaysInformation.maxCountries:20}") int maxCountries,
+                                         @Value("${holidaysInformation.maxConcurrency:8}") int maxConcurrency,
+                                         @Value("${holidaysInformation.batchConcurrency:32}") int batchConcurrency,
+                                         @Value("${holidaysInformation.maxRangeYears:10}") int maxRangeYears,
+                                         @Value("${holidaysInformation.searchHorizonYears:2}") int searchHorizonYears,
+                                         @Value("${holidaysInformation.speculativeWindowDays:31}") int speculativeWindowDays) {
         this.publicHolidayService = publicHolidayService;
+        this.holidayServiceMetrics = holidayServiceMetrics;
+        this.commonHolidayTableService = commonHolidayTableService.getIfAvailable();
+        this.maxCountries = maxCountries;
+        this.maxConcurrency = maxConcurrency;
+        this.batchConcurrency = batchConcurrency;
+        this.maxRangeYears = maxRangeYears;
+        this.searchHorizonYears = searchHorizonYears;
+        this.speculativeWindowDays = speculativeWindowDays;
     }
 
     @Override
     public Mono<HolidayDto> getHolidayInformation(LocalDate date, String firstCountryCode, String secondCountryCode) {
+        return getHolidayInformation(date, firstCountryCode, secondCountryCode, publicHolidayService::getHolidayCalendar);
+    }
+
+    @Override
+    public Flux<HolidayBatchResultDto> getHolidayInformation(Flux<HolidayQueryDto> holidayQueries) {
+        return Flux.defer(() -> {
+            Map<HolidayCalendarKey, Mono<HolidayCalendar>> batchHolidayCalendars = new ConcurrentHashMap<>();
+            HolidayCalendarLoader holidayCalendarLoader = (year, countryCode) -> batchHolidayCalendars.computeIfAbsent(
+                    new HolidayCalendarKey(countryCode, year), key -> publicHolidayService.getHolidayCalendar(year, countryCode).cache());
+            return holidayQueries
+                    .index()
+                    .flatMapSequential(indexedHolidayQuery -> Mono.defer(() -> getHolidayInformation(indexedHolidayQuery.getT2(), holidayCalendarLoader))
+                            .map(holidayDto -> HolidayBatchResultDto.builder()
+                                    .index(indexedHolidayQuery.getT1())
+                                    .holiday(holidayDto)
+                                    .build())
+                            .onErrorResume(ex -> Mono.just(HolidayBatchResultDto.builder()
+                                    .index(indexedHolidayQuery.getT1())
+                                    .error(Objects.requireNonNullElse(ex.getMessage(), "Incorrect request param/params"))
+                                    .build())), batchConcurrency);
+        });
+    }
+
+    private Mono<HolidayDto> getHolidayInformation(HolidayQueryDto holidayQuery, HolidayCalendarLoader holidayCalendarLoader) {
+        if (holidayQuery.date() == null) {
+            holidayServiceMetrics.dateValidationFailed();
+            return Mono.error(() -> new NoSuchElementException("Date validation failed"));
+        }
+        return getHolidayInformation(holidayQuery.date(), holidayQuery.firstCountryCode(), holidayQuery.secondCountryCode(), holidayCalendarLoader);
+    }
+
+    private Mono<HolidayDto> getHolidayInformation(LocalDate date, String firstCountryCode, String secondCountryCode, HolidayCalendarLoader holidayCalendarLoader) {
         if (IsoUtils.isValidISOCountry(firstCountryCode) && IsoUtils.isValidISOCountry(secondCountryCode)) {
-            return getPublicHolidaysList(date, firstCountryCode, secondCountryCode)
-                    .map(this::getHolidaysFromBothCountriesAsMapGroupedByDate)
-                    .switchIfEmpty(Mono.error(new NoSuchElementException("Can't find any holiday for both countries")))
-                    .map(publicHolidayMap -> buildHolidayDto(firstCountryCode, secondCountryCode, publicHolidayMap));
-        } else
+            return findNextCommonHoliday(date, List.of(firstCountryCode, secondCountryCode), holidayCalendarLoader)
+                    .map(commonHoliday -> HolidayDto.builder()
+                            .date(commonHoliday.date())
+                            .name1(commonHoliday.localName(0))
+                            .name2(commonHoliday.localName(1))
+                            .build());
+        } else {
+            holidayServiceMetrics.countryCodeValidationFailed();
             return Mono.error(() -> new NoSuchElementException("Country codes validation failed"));
+        }
     }
 
-    private Mono<Map<LocalDate, List<PublicHolidayDto>>> getPublicHolidaysList(LocalDate date, String firstCountryCode, String secondCountryCode) {
-        return Flux.just(firstCountryCode, secondCountryCode)
-                .flatMap(countryCode -> publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(date, countryCode))
-                .collect(Collectors.groupingBy(PublicHolidayDto::date));
+    @Override
+    public Mono<CommonHolidayDto> getCommonHolidayInformation(LocalDate date, List<String> countryCodes) {
+        List<String> distinctCountryCodes = List.copyOf(new LinkedHashSet<>(countryCodes));
+        if (isValidCountryCodes(distinctCountryCodes)) {
+            return findNextCommonHoliday(date, distinctCountryCodes, publicHolidayService::getHolidayCalendar)
+                    .map(this::buildCommonHolidayDto);
+        } else {
+            holidayServiceMetrics.countryCodeValidationFailed();
+            return Mono.error(() -> new NoSuchElementException("Country codes validation failed"));
+        }
+    }
+
+    @Override
+    public Flux<CommonHolidayDto> getCommonHolidays(LocalDate from, LocalDate to, List<String> countryCodes) {
+        List<String> distinctCountryCodes = List.copyOf(new LinkedHashSet<>(countryCodes));
+        if (!isValidCountryCodes(distinctCountryCodes)) {
+            holidayServiceMetrics.countryCodeValidationFailed();
+            return Flux.error(() -> new NoSuchElementException("Country codes validation failed"));
+        } else if (to.isBefore(from) || to.getYear() - from.getYear() >= maxRangeYears) {
+            holidayServiceMetrics.dateRangeValidationFailed();
+            return Flux.error(() -> new NoSuchElementException("Date range validation failed"));
+        }
+        return Flux.range(from.getYear(), to.getYear() - from.getYear() + 1)
+                .concatMap(year -> getHolidayCalendars(year, distinctCountryCodes, publicHolidayService::getHolidayCalendar)
+                        .flatMapIterable(holidayCalendars -> findCommonHolidays(holidayCalendars, from, to)))
+                .map(this::buildCommonHolidayDto);
     }
 
-    private Map<String, PublicHolidayDto> getHolidaysFromBothCountriesAsMapGroupedByDate(Map<LocalDate, List<PublicHolidayDto>> localDateListMap) {
-        return localDateListMap.entrySet().stream()
-                .filter(localDateListEntry -> localDateListEntry.getValue().size() == 2)
-                .min(Map.Entry.comparingByKey())
-                .map(Map.Entry::getValue)
-                .map(publicHolidayDtos -> publicHolidayDtos.stream().collect(Collectors.toMap(PublicHolidayDto::countryCode, publicHolidayDto -> publicHolidayDto)))
-                .orElseThrow(() -> new NoSuchElementException("Empty response from Public Holiday API"));
+    private boolean isValidCountryCodes(List<String> countryCodes) {
+        return countryCodes.size() >= 2 && countryCodes.size() <= maxCountries
+                && countryCodes.stream().allMatch(IsoUtils::isValidISOCountry);
     }
 
-    private HolidayDto buildHolidayDto(String firstCountryCode, String secondCountryCode, Map<String, PublicHolidayDto> publicHolidayMap) {
-        return HolidayDto.builder()
-                .date(publicHolidayMap.get(firstCountryCode).date())
-                .name1(publicHolidayMap.get(firstCountryCode).localName())
-                .name2(publicHolidayMap.get(secondCountryCode).localName())
+    private Mono<List<HolidayCalendar>> getHolidayCalendars(int year, List<String> countryCodes, HolidayCalendarLoader holidayCalendarLoader) {
+        return Flux.fromIterable(countryCodes)
+                .flatMapSequential(countryCode -> holidayCalendarLoader.load(year, countryCode), maxConcurrency)
+                .collectList()
+                .filter(holidayCalendars -> holidayCalendars.size() == countryCodes.size());
+    }
+
+    private List<CommonHoliday> findCommonHolidays(List<HolidayCalendar> holidayCalendars, LocalDate from, LocalDate to) {
+        int year = holidayCalendars.get(0).year();
+        int fromDayOfYear = year == from.getYear() ? from.getDayOfYear() : 1;
+        int toDayOfYear = year == to.getYear() ? to.getDayOfYear() : Integer.MAX_VALUE;
+        List<CommonHoliday> commonHolidays = new ArrayList<>();
+        for (int dayOfYear = HolidayCalendar.nextCommonHoliday(holidayCalendars, fromDayOfYear);
+             dayOfYear != -1 && dayOfYear <= toDayOfYear;
+             dayOfYear = HolidayCalendar.nextCommonHoliday(holidayCalendars, dayOfYear + 1)) {
+            commonHolidays.add(new CommonHoliday(dayOfYear, holidayCalendars));
+        }
+        return commonHolidays;
+    }
+
+    /**
+     * Walks the years from {@code date} up to the search horizon and stops at the first common holiday. Within a year
+     * the calendars are merge-joined by AND-ing their day bitsets. Close to the year end the next year is loaded
+     * speculatively alongside the current one. Outcomes are replayed in year order, so an error of a year fails the
+     * search only if no earlier year has answered it.
+     */
+    private Mono<CommonHoliday> findNextCommonHoliday(LocalDate date, List<String> countryCodes, HolidayCalendarLoader holidayCalendarLoader) {
+        int yearConcurrency = date.lengthOfYear() - date.getDayOfYear() < speculativeWindowDays ? 2 : 1;
+        return Flux.range(date.getYear(), searchHorizonYears + 1)
+                .flatMapSequential(year -> findNextCommonHoliday(year, date, countryCodes, holidayCalendarLoader).materialize(), yearConcurrency, 1)
+                .<CommonHoliday>handle((signal, sink) -> {
+                    if (signal.isOnNext()) {
+                        sink.next(signal.get());
+                    } else if (signal.isOnError()) {
+                        sink.error(signal.getThrowable());
+                    }
+                })
+                .next()
+                .switchIfEmpty(Mono.error(() -> {
+                    holidayServiceMetrics.notFound();
+                    return new NoSuchElementException("Can't find any holiday for all countries");
+                }));
+    }
+
+    private Mono<CommonHoliday> findNextCommonHoliday(int year, LocalDate date, List<String> countryCodes, HolidayCalendarLoader holidayCalendarLoader) {
+        CommonHolidayTable table = commonHolidayTableService != null && countryCodes.size() == 2 ? commonHolidayTableService.table(year) : null;
+        if (table != null) {
+            int dayOfYear = table.nextCommonHoliday(countryCodes.get(0), countryCodes.get(1), year == date.getYear() ? date.getDayOfYear() + 1 : 1);
+            if (dayOfYear != CommonHolidayTable.UNKNOWN_PAIR) {
+                commonHolidayTableService.recordAccess(year, countryCodes);
+                return dayOfYear == -1 ? Mono.empty()
+                        : Mono.just(new CommonHoliday(dayOfYear, List.of(table.calendar(countryCodes.get(0)), table.calendar(countryCodes.get(1)))));
+            }
+        }
+        return getHolidayCalendars(year, countryCodes, holidayCalendarLoader)
+                .flatMap(holidayCalendars -> findNextCommonHoliday(date, holidayCalendars));
+    }
+
+    private Mono<CommonHoliday> findNextCommonHoliday(LocalDate date, List<HolidayCalendar> holidayCalendars) {
+        int year = holidayCalendars.get(0).year();
+        int dayOfYear = HolidayCalendar.nextCommonHoliday(holidayCalendars, year == date.getYear() ? date.getDayOfYear() + 1 : 1);
+        return dayOfYear == -1 ? Mono.empty() : Mono.just(new CommonHoliday(dayOfYear, holidayCalendars));
+    }
+
+    private CommonHolidayDto buildCommonHolidayDto(CommonHoliday commonHoliday) {
+        Map<String, String> localNames = new LinkedHashMap<>();
+        for (int i = 0; i < commonHoliday.holidayCalendars().size(); i++) {
+            localNames.put(commonHoliday.holidayCalendars().get(i).countryCode(), commonHoliday.localName(i));
+        }
+        return CommonHolidayDto.builder()
+                .date(commonHoliday.date())
+                .localNames(localNames)
                 .build();
     }
+
+    @FunctionalInterface
+    private interface HolidayCalendarLoader {
+
+        Mono<HolidayCalendar> load(int year, String countryCode);
+    }
+
+    private record CommonHoliday(int dayOfYear, List<HolidayCalendar> holidayCalendars) {
+
+        LocalDate date() {
+            return holidayCalendars.get(0).date(dayOfYear);
+        }
+
+        String localName(int index) {
+            return holidayCalendars.get(index).localName(dayOfYear);
+        }
+    }
 }
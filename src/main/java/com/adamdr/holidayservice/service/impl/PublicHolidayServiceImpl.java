@@ -1,48 +1,215 @@
 package com.adamdr.holidayservice.service.impl;
 
-import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.cache.CachedHolidayCalendar;
+import com.adamdr.holidayservice.cache.HolidayCalendarCache;
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.cache.HolidayCalendarSnapshotStore;
+import com.adamdr.holidayservice.cache.InFlightRequests;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.calendar.HolidayCalendarUpdatedEvent;
+import com.adamdr.holidayservice.http.CircuitBreaker;
+import com.adamdr.holidayservice.http.HedgeDelayEstimator;
+import com.adamdr.holidayservice.http.HolidayCalendarDecoder;
+import com.adamdr.holidayservice.http.UpstreamConcurrencyLimiter;
+import com.adamdr.holidayservice.http.UpstreamUnavailableException;
 import com.adamdr.holidayservice.http.WebClientInstance;
+import com.adamdr.holidayservice.metrics.HolidayServiceMetrics;
 import com.adamdr.holidayservice.service.PublicHolidayService;
-import lombok.Setter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
 
-import java.time.LocalDate;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
 
+@Slf4j
 @Service
 public class PublicHolidayServiceImpl implements PublicHolidayService {
 
     private final WebClientInstance webClientInstance;
+    private final HolidayCalendarCache holidayCalendarCache;
+    private final HolidayCalendarSnapshotStore holidayCalendarSnapshotStore;
+    private final HolidayCalendarDecoder holidayCalendarDecoder;
+    private final CircuitBreaker circuitBreaker;
+    private final UpstreamConcurrencyLimiter upstreamConcurrencyLimiter;
+    private final HedgeDelayEstimator hedgeDelayEstimator;
+    private final Counter hedgedRequests;
+    private final HolidayServiceMetrics holidayServiceMetrics;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final InFlightRequests<HolidayCalendarKey, HolidayCalendar> inFlightRequests = new InFlightRequests<>();
+    private final InFlightRequests<HolidayCalendarKey, HolidayCalendar> refreshRequests = new InFlightRequests<>();
     private final String holidaysApiUrl;
+    private final boolean refreshEnabled;
+    private final Duration refreshInterval;
+    private final int refreshConcurrency;
+    private final int refreshBatchSize;
+    private final boolean hedgingEnabled;
+    private Disposable refreshAhead;
 
     @Autowired
-    public PublicHolidayServiceImpl(WebClientInstance webClientInstance, @Value("${holidaysApiUrl}") String holidaysApiUrl) {
+    public PublicHolidayServiceImpl(WebClientInstance webClientInstance, HolidayCalendarCache holidayCalendarCache,
+                                    HolidayCalendarSnapshotStore holidayCalendarSnapshotStore, HolidayCalendarDecoder holidayCalendarDecoder,
+                                    CircuitBreaker circuitBreaker, UpstreamConcurrencyLimiter upstreamConcurrencyLimiter,
+                                    HedgeDelayEstimator hedgeDelayEstimator, MeterRegistry meterRegistry,
+                                    HolidayServiceMetrics holidayServiceMetrics, ApplicationEventPublisher applicationEventPublisher,
+                                    @Value("${holidaysApiUrl}") String holidaysApiUrl,
+                                    @Value("${holidaysCache.refreshEnabled:true}") boolean refreshEnabled,
+                                    @Value("${holidaysCache.refreshInterval:1m}") Duration refreshInterval,
+                                    @Value("${holidaysCache.refreshConcurrency:4}") int refreshConcurrency,
+                                    @Value("${holidaysCache.refreshBatchSize:100}") int refreshBatchSize,
+                                    @Value("${holidaysApi.hedging.enabled:true}") boolean hedgingEnabled) {
         this.webClientInstance = webClientInstance;
+        this.holidayCalendarCache = holidayCalendarCache;
+        this.holidayCalendarSnapshotStore = holidayCalendarSnapshotStore;
+        this.holidayCalendarDecoder = holidayCalendarDecoder;
+        this.circuitBreaker = circuitBreaker;
+        this.upstreamConcurrencyLimiter = upstreamConcurrencyLimiter;
+        this.hedgeDelayEstimator = hedgeDelayEstimator;
+        this.hedgedRequests = Counter.builder("holidays.api.hedged")
+                .description("Hedged calls sent to the Public Holiday API")
+                .register(meterRegistry);
+        this.holidayServiceMetrics = holidayServiceMetrics;
+        this.applicationEventPublisher = applicationEventPublisher;
         this.holidaysApiUrl = holidaysApiUrl;
+        this.refreshEnabled = refreshEnabled;
+        this.refreshInterval = refreshInterval;
+        this.refreshConcurrency = refreshConcurrency;
+        this.refreshBatchSize = refreshBatchSize;
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    @PostConstruct
+    void startRefreshAhead() {
+        if (refreshEnabled) {
+            refreshAhead = Flux.interval(refreshInterval, refreshInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> Flux.fromIterable(holidayCalendarCache.refreshCandidates(refreshBatchSize))
+                            .flatMap(this::refreshHolidayCalendar, refreshConcurrency)
+                            .then())
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    void stopRefreshAhead() {
+        if (refreshAhead != null) {
+            refreshAhead.dispose();
+        }
     }
 
     @Override
-    public Flux<PublicHolidayDto> getPublicHolidaysForCountryAfterGivenDate(LocalDate date, String countryCode) {
-        return getPublicHolidays(date, countryCode)
-                .filter(publicHolidayDto -> publicHolidayDto.date().isAfter(date))
-                .switchIfEmpty(Flux.defer(() -> getPublicHolidays(date.plusYears(1l).withMonth(1).withDayOfMonth(1), countryCode)));
+    public Mono<HolidayCalendar> getHolidayCalendar(int year, String countryCode) {
+        HolidayCalendarKey key = new HolidayCalendarKey(countryCode, year);
+        return Mono.defer(() -> Mono.justOrEmpty(holidayCalendarCache.get(key)))
+                .doOnNext(cachedHolidayCalendar -> {
+                    if (holidayCalendarCache.isStale(cachedHolidayCalendar)) {
+                        refreshHolidayCalendar(key).subscribe();
+                    }
+                })
+                .map(CachedHolidayCalendar::holidayCalendar)
+                .switchIfEmpty(inFlightRequests.join(key, () -> loadHolidayCalendar(key)));
+    }
+
+    private Mono<HolidayCalendar> loadHolidayCalendar(HolidayCalendarKey key) {
+        return Mono.defer(() -> Mono.justOrEmpty(holidayCalendarSnapshotStore.find(key)))
+                .filter(cachedHolidayCalendar -> !holidayCalendarCache.isExpired(cachedHolidayCalendar))
+                .switchIfEmpty(Mono.defer(() -> fetchHolidayCalendar(key)
+                        .map(holidayCalendar -> new CachedHolidayCalendar(holidayCalendar, System.currentTimeMillis()))
+                        .doOnNext(holidayCalendarSnapshotStore::store)
+                        .onErrorResume(UpstreamUnavailableException.class, ex -> Mono.justOrEmpty(holidayCalendarSnapshotStore.find(key))
+                                .switchIfEmpty(Mono.error(ex)))))
+                .doOnNext(cachedHolidayCalendar -> holidayCalendarCache.put(key, cachedHolidayCalendar))
+                .map(CachedHolidayCalendar::holidayCalendar);
+    }
+
+    private Mono<HolidayCalendar> refreshHolidayCalendar(HolidayCalendarKey key) {
+        return refreshRequests.join(key, () -> fetchHolidayCalendar(key)
+                .map(holidayCalendar -> new CachedHolidayCalendar(holidayCalendar, System.currentTimeMillis()))
+                .doOnNext(cachedHolidayCalendar -> {
+                    holidayCalendarCache.put(key, cachedHolidayCalendar);
+                    holidayCalendarSnapshotStore.store(cachedHolidayCalendar);
+                })
+                .map(CachedHolidayCalendar::holidayCalendar)
+                .onErrorResume(ex -> {
+                    log.warn("Can't refresh holiday calendar {}, serving stale calendar: {}", key, ex.getMessage());
+                    return Mono.empty();
+                }));
+    }
+
+    private Mono<HolidayCalendar> fetchHolidayCalendar(HolidayCalendarKey key) {
+        Mono<HolidayCalendar> call = upstreamConcurrencyLimiter.execute(circuitBreaker.execute(Mono.defer(() -> {
+            long start = System.nanoTime();
+            return requestHolidayCalendar(key)
+                    .doOnSuccess(holidayCalendar -> {
+                        long duration = System.nanoTime() - start;
+                        hedgeDelayEstimator.record(duration);
+                        holidayServiceMetrics.recordUpstreamCall(key.countryCode(), HolidayServiceMetrics.Outcome.SUCCESS, duration);
+                    })
+                    .doOnError(ex -> holidayServiceMetrics.recordUpstreamCall(key.countryCode(), HolidayServiceMetrics.outcome(ex), System.nanoTime() - start));
+        })));
+        return (hedgingEnabled ? hedge(call) : call)
+                .doOnNext(holidayCalendar -> applicationEventPublisher.publishEvent(new HolidayCalendarUpdatedEvent(holidayCalendar)));
+    }
+
+    /**
+     * Sends a second call when the first one hasn't answered within the hedge delay. Whichever call first answers with
+     * a value, an empty answer, a 4xx or a local rejection wins; a transient error lets the other call answer instead.
+     * When both calls fail transiently, the last error is propagated.
+     */
+    private Mono<HolidayCalendar> hedge(Mono<HolidayCalendar> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Throwable> lastError = new AtomicReference<>();
+            Mono<Signal<HolidayCalendar>> primary = answer(call, lastError);
+            Mono<Signal<HolidayCalendar>> hedged = Mono.delay(hedgeDelayEstimator.delay())
+                    .then(Mono.defer(() -> {
+                        hedgedRequests.increment();
+                        return answer(call, lastError);
+                    }));
+            return Mono.firstWithValue(primary, hedged)
+                    .onErrorMap(NoSuchElementException.class, ex -> lastError.get() != null ? lastError.get() : ex)
+                    .dematerialize();
+        });
+    }
+
+    private static Mono<Signal<HolidayCalendar>> answer(Mono<HolidayCalendar> call, AtomicReference<Throwable> lastError) {
+        return call.materialize()
+                .filter(signal -> {
+                    if (signal.isOnError() && !isFinal(signal.getThrowable())) {
+                        lastError.set(signal.getThrowable());
+                        return false;
+                    }
+                    return true;
+                });
+    }
+
+    private static boolean isFinal(Throwable ex) {
+        return ex instanceof NoSuchElementException || ex instanceof UpstreamUnavailableException;
     }
 
-    private Flux<PublicHolidayDto> getPublicHolidays(LocalDate date, String countryCode) {
+    private Mono<HolidayCalendar> requestHolidayCalendar(HolidayCalendarKey key) {
         return webClientInstance.getWebClient()
                 .get()
-                .uri(holidaysApiUrl + date.getYear() + "/" + countryCode)
+                .uri(holidaysApiUrl + "{year}/{countryCode}", key.year(), key.countryCode())
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError, clientResponse -> Mono.error(new NoSuchElementException("Response from Public Holiday API with status code = " + clientResponse.statusCode().value())))
                 .onStatus(HttpStatus::is5xxServerError, clientResponse -> Mono.error(new RuntimeException("Response from Public Holiday API with status code = " + clientResponse.statusCode().value())))
-                .bodyToFlux(PublicHolidayDto.class);
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> holidayCalendarDecoder.decode(body, key));
     }
 }
@@ -0,0 +1,68 @@
+package com.adamdr.holidayservice.service.impl;
+
+import com.adamdr.holidayservice.calendar.CountryHolidayRules;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.service.PublicHolidayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes holiday calendars locally from the rules file, without calling the Public Holiday API. Countries and years
+ * without rules fail with {@link NoSuchElementException}, like the API does for unknown ones.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "holidaysRules.enabled", havingValue = "true")
+public class RuleBasedPublicHolidayService implements PublicHolidayService {
+
+    public record HolidayRulesFile(List<CountryHolidayRules> countries) {}
+
+    private final Map<String, CountryHolidayRules> rules;
+
+    @Autowired
+    public RuleBasedPublicHolidayService(ObjectMapper objectMapper,
+                                         @Value("${holidaysRules.path:classpath:holiday-rules.json}") Resource rulesFile) {
+        try (InputStream inputStream = rulesFile.getInputStream()) {
+            this.rules = objectMapper.readValue(inputStream, HolidayRulesFile.class).countries().stream()
+                    .collect(Collectors.toUnmodifiableMap(CountryHolidayRules::countryCode, Function.identity()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read holiday rules from " + rulesFile, ex);
+        }
+        log.info("Holiday rules loaded for {}", rules.keySet());
+    }
+
+    public boolean supports(int year, String countryCode) {
+        CountryHolidayRules countryHolidayRules = rules.get(countryCode);
+        return countryHolidayRules != null && countryHolidayRules.supports(year);
+    }
+
+    public Set<String> countryCodes() {
+        return rules.keySet();
+    }
+
+    @Override
+    public Mono<HolidayCalendar> getHolidayCalendar(int year, String countryCode) {
+        return Mono.fromCallable(() -> {
+            if (!supports(year, countryCode)) {
+                throw new NoSuchElementException("No holiday rules for " + countryCode + " in " + year);
+            }
+            return rules.get(countryCode).calendar(year);
+        });
+    }
+}
@@ -10,6 +10,6 @@ public final class IsoUtils {
     private IsoUtils() {}
 
     public static boolean isValidISOCountry(String countryCode) {
-        return ISO_COUNTRIES.contains(countryCode);
+        return countryCode != null && ISO_COUNTRIES.contains(countryCode);
     }
 }
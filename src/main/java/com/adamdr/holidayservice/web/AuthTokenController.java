@@ -0,0 +1,45 @@
+package com.adamdr.holidayservice.web;
+
+import com.adamdr.holidayservice.dto.AccessTokenDto;
+import com.adamdr.holidayservice.security.SignedTokenAuthentication;
+import com.adamdr.holidayservice.security.SignedTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(path = "/v1/auth")
+@ConditionalOnProperty(name = "holidaysSecurity.tokenEnabled", havingValue = "true")
+public class AuthTokenController {
+
+    private final SignedTokenService signedTokenService;
+
+    @Autowired
+    public AuthTokenController(SignedTokenService signedTokenService) {
+        this.signedTokenService = signedTokenService;
+    }
+
+    @Operation(summary = "Exchange Basic credentials for a short-lived bearer token", security = {@SecurityRequirement(name = "basicAuth")})
+    @PostMapping(path = "/token", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<AccessTokenDto>> createToken() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> authentication instanceof SignedTokenAuthentication
+                        ? ResponseEntity.status(HttpStatus.FORBIDDEN).<AccessTokenDto>build()
+                        : ResponseEntity.ok(AccessTokenDto.builder()
+                                .accessToken(signedTokenService.issue(authentication))
+                                .tokenType("Bearer")
+                                .expiresIn(signedTokenService.tokenTtl().toSeconds())
+                                .build()));
+    }
+}
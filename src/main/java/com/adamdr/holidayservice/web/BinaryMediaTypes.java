@@ -0,0 +1,16 @@
+package com.adamdr.holidayservice.web;
+
+import org.springframework.http.MediaType;
+
+public final class BinaryMediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.parseMediaType(APPLICATION_STREAM_SMILE_VALUE);
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    private BinaryMediaTypes() {}
+}
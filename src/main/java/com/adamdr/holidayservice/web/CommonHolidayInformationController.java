@@ -0,0 +1,55 @@
+package com.adamdr.holidayservice.web;
+
+import com.adamdr.holidayservice.dto.CommonHolidayDto;
+import com.adamdr.holidayservice.service.HolidayInformationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/v2/holidays-information")
+public class CommonHolidayInformationController {
+
+    private final HolidayInformationService holidayInformationService;
+
+    @Autowired
+    public CommonHolidayInformationController(HolidayInformationService holidayInformationService) {
+        this.holidayInformationService = holidayInformationService;
+    }
+
+    @Operation(summary = "Return next holiday after the given date in all countries", security = {@SecurityRequirement(name = "basicAuth")})
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<CommonHolidayDto>> getNextCommonHolidayForCountries(@RequestParam("date")
+                                                                                       @Parameter(description = "Date in format YYYY-MM-DD")
+                                                                                       LocalDate date,
+                                                                                   @RequestParam("countries")
+                                                                                       @Parameter(description = "Comma separated list of 2 to 20 country codes in ISO 3166-1 alpha-2 format")
+                                                                                       List<String> countryCodes) {
+        return holidayInformationService.getCommonHolidayInformation(date, countryCodes)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Return every holiday between the given dates that is common to all countries", security = {@SecurityRequirement(name = "basicAuth")})
+    @GetMapping(path = "/range", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE,
+            BinaryMediaTypes.APPLICATION_STREAM_SMILE_VALUE, BinaryMediaTypes.APPLICATION_CBOR_SEQ_VALUE})
+    public Flux<CommonHolidayDto> getCommonHolidaysForCountries(@RequestParam("from")
+                                                                @Parameter(description = "First date of the range (inclusive) in format YYYY-MM-DD")
+                                                                LocalDate from,
+                                                                @RequestParam("to")
+                                                                @Parameter(description = "Last date of the range (inclusive) in format YYYY-MM-DD")
+                                                                LocalDate to,
+                                                                @RequestParam("countries")
+                                                                @Parameter(description = "Comma separated list of 2 to 20 country codes in ISO 3166-1 alpha-2 format")
+                                                                List<String> countryCodes) {
+        return holidayInformationService.getCommonHolidays(from, to, countryCodes);
+    }
+}
@@ -1,63 +1,98 @@
 package com.adamdr.holidayservice.web;
 
+import com.adamdr.holidayservice.cache.HolidayAnswerCache;
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
+import com.adamdr.holidayservice.dto.HolidayQueryDto;
 import com.adamdr.holidayservice.service.HolidayInformationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.NoSuchElementException;
+import java.util.Base64;
 
-import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
-
-@Slf4j
 @RestController
 @RequestMapping(path = "/v1/holidays-information")
 public class HolidayInformationController {
 
     private final HolidayInformationService holidayInformationService;
+    private final HolidayAnswerCache holidayAnswerCache;
+    private final CacheControl cacheControl;
 
     @Autowired
-    public HolidayInformationController(HolidayInformationService holidayInformationService) {
+    public HolidayInformationController(HolidayInformationService holidayInformationService, HolidayAnswerCache holidayAnswerCache,
+                                        @Value("${holidaysAnswerCache.maxAge:1h}") Duration maxAge) {
         this.holidayInformationService = holidayInformationService;
+        this.holidayAnswerCache = holidayAnswerCache;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePrivate();
     }
 
     @Operation(summary = "Return next holiday after the given date in both countries", security = {@SecurityRequirement(name = "basicAuth")})
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
     public Mono<ResponseEntity<HolidayDto>> getNextHolidayForCountries(@RequestParam("date")
                                                                            @Parameter(description = "Date in format YYYY-MM-DD")
-                                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE, fallbackPatterns = {"MM/dd/yyyy", "dd/MM/yyyy", "dd.MM.yyyy", "yyyy/MM/dd"})
                                                                            LocalDate date,
                                                                        @RequestParam("firstCountryCode")
                                                                            @Parameter(description = "First country code in ISO 3166-1 alpha-2 format")
                                                                            String firstCountryCode,
                                                                        @RequestParam("secondCountryCode")
                                                                            @Parameter(description = "Second country code in ISO 3166-1 alpha-2 format")
-                                                                           String secondCountryCode) {
-        return holidayInformationService.getHolidayInformation(date, firstCountryCode, secondCountryCode)
-                .map(ResponseEntity::ok);
+                                                                           String secondCountryCode,
+                                                                       ServerWebExchange exchange) {
+        return holidayAnswerCache.get(date, firstCountryCode, secondCountryCode, holidayInformationService::getHolidayInformation)
+                .map(holidayDto -> {
+                    String eTag = eTag(holidayDto);
+                    return exchange.checkNotModified(eTag)
+                            ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).<HolidayDto>build()
+                            : ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(holidayDto);
+                });
+    }
+
+    @Operation(summary = "Return next holiday after the given date in both countries for every query of the batch", security = {@SecurityRequirement(name = "basicAuth")})
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = {MediaType.APPLICATION_NDJSON_VALUE, BinaryMediaTypes.APPLICATION_STREAM_SMILE_VALUE,
+            BinaryMediaTypes.APPLICATION_CBOR_SEQ_VALUE})
+    public Flux<HolidayBatchResultDto> getNextHolidaysForCountries(@RequestBody
+                                                                   @Parameter(description = "Queries with date in format YYYY-MM-DD and country codes in ISO 3166-1 alpha-2 format")
+                                                                   Flux<HolidayQueryDto> holidayQueries) {
+        return holidayInformationService.getHolidayInformation(holidayQueries);
     }
 
-    @ExceptionHandler({ TypeMismatchException.class, ServerWebInputException.class, NoSuchElementException.class})
-    public ResponseEntity<String> handleMethodArgumentTypeMismatch(Exception ex) {
-        log.debug("Exception message: {}, exception cause: {}, exception stack trace: {}", ex.getMessage(), ex.getCause(), ex.getStackTrace());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Incorrect request param/params");
+    /**
+     * Weak, because the JSON, CBOR and Smile representations of the same answer share it. The fields are
+     * length-prefixed before hashing, so different answers can't produce the same input.
+     */
+    private String eTag(HolidayDto holidayDto) {
+        MessageDigest digest = sha256();
+        for (String field : new String[]{String.valueOf(holidayDto.date()), holidayDto.name1(), holidayDto.name2()}) {
+            byte[] bytes = field == null ? new byte[0] : field.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(field == null ? -1 : bytes.length).array());
+            digest.update(bytes);
+        }
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
     }
 
-    @ExceptionHandler({ Exception.class })
-    public ResponseEntity<String> handleException(Exception ex) {
-        log.debug("Exception message: {}, exception cause: {}, exception stack trace: {}", ex.getMessage(), ex.getCause(), ex.getStackTrace());
-        return  ResponseEntity.status(INTERNAL_SERVER_ERROR).body(ex.getMessage());
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Can't initialize SHA-256", ex);
+        }
     }
 }
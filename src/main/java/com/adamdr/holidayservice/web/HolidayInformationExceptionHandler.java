@@ -0,0 +1,37 @@
+package com.adamdr.holidayservice.web;
+
+import com.adamdr.holidayservice.http.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.NoSuchElementException;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+@Slf4j
+@RestControllerAdvice
+public class HolidayInformationExceptionHandler {
+
+    @ExceptionHandler({ TypeMismatchException.class, ServerWebInputException.class, NoSuchElementException.class})
+    public ResponseEntity<String> handleMethodArgumentTypeMismatch(Exception ex) {
+        log.debug("Rejected request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Incorrect request param/params");
+    }
+
+    @ExceptionHandler({ UpstreamUnavailableException.class })
+    public ResponseEntity<String> handleUpstreamUnavailable(Exception ex) {
+        log.debug("Exception message: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({ Exception.class })
+    public ResponseEntity<String> handleException(Exception ex) {
+        log.error("Unhandled exception", ex);
+        return  ResponseEntity.status(INTERNAL_SERVER_ERROR).body(ex.getMessage());
+    }
+}
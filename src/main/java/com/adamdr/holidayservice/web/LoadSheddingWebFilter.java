@@ -0,0 +1,118 @@
+package com.adamdr.holidayservice.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds {@code GET /v1/holidays-information} requests instead of queueing them. It runs after Spring Security, so
+ * every request has a principal. A user over {@code maxConcurrencyPerUser} requests in flight gets 429, and any
+ * request over the {@link AdaptiveConcurrencyLimiter} limit gets 503. Both responses carry {@code Retry-After}. Errors
+ * and 5xx responses count as failures for the limiter.
+ */
+public class LoadSheddingWebFilter implements WebFilter {
+
+    private static final String PATH = "/v1/holidays-information";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxConcurrencyPerUser;
+    private final String retryAfterSeconds;
+    private final Map<String, Integer> inFlightPerUser = new ConcurrentHashMap<>();
+    private final Counter shedOverLimit;
+    private final Counter shedOverUserQuota;
+
+    public LoadSheddingWebFilter(AdaptiveConcurrencyLimiter limiter, int maxConcurrencyPerUser, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.maxConcurrencyPerUser = maxConcurrencyPerUser;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.shedOverLimit = shedCounter(meterRegistry, "limit");
+        this.shedOverUserQuota = shedCounter(meterRegistry, "user");
+        Gauge.builder("holidays.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit of the holidays endpoint")
+                .register(meterRegistry);
+        Gauge.builder("holidays.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests to the holidays endpoint in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || !PATH.equals(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(user -> {
+                    if (!tryAcquireUser(user)) {
+                        shedOverUserQuota.increment();
+                        return reject(exchange, HttpStatus.TOO_MANY_REQUESTS);
+                    }
+                    if (!limiter.tryAcquire()) {
+                        releaseUser(user);
+                        shedOverLimit.increment();
+                        return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                    long start = System.nanoTime();
+                    return chain.filter(exchange)
+                            .doFinally(signalType -> {
+                                releaseUser(user);
+                                limiter.release(System.nanoTime() - start, signalType == SignalType.ON_ERROR || isServerError(exchange));
+                            });
+                });
+    }
+
+    private boolean tryAcquireUser(String user) {
+        if (maxConcurrencyPerUser <= 0) {
+            return true;
+        }
+        boolean[] acquired = new boolean[1];
+        inFlightPerUser.compute(user, (key, inFlight) -> {
+            int current = inFlight == null ? 0 : inFlight;
+            acquired[0] = current < maxConcurrencyPerUser;
+            return acquired[0] ? current + 1 : inFlight;
+        });
+        return acquired[0];
+    }
+
+    private void releaseUser(String user) {
+        if (maxConcurrencyPerUser > 0) {
+            inFlightPerUser.computeIfPresent(user, (key, inFlight) -> inFlight > 1 ? inFlight - 1 : null);
+        }
+    }
+
+    /**
+     * Exceptions mapped to a response by an exception handler complete the chain normally, so the status tells them
+     * apart from successful requests.
+     */
+    private static boolean isServerError(ServerWebExchange exchange) {
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("holidays.limiter.shed")
+                .description("Requests to the holidays endpoint rejected without being processed")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.adamdr.holidayservice.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Binds {@link LocalDate} request parameters given as {@code yyyy-MM-dd}, {@code yyyy/MM/dd}, {@code dd.MM.yyyy},
+ * {@code MM/dd/yyyy} or {@code dd/MM/yyyy}. The shape is recognised from the separator positions and the digits are
+ * read directly, so valid input is parsed without trying patterns or throwing exceptions.
+ *
+ * <p>{@code xx/xx/yyyy} is resolved as month first or day first when only one of them is a valid date. When both are
+ * valid and differ, e.g. {@code 03/04/2024}, the {@link AmbiguousDatePolicy} decides.
+ */
+@Component
+public class LocalDateParameterConverter implements Converter<String, LocalDate> {
+
+    public enum AmbiguousDatePolicy {
+        /** {@code 03/04/2024} is March 4th, as the former {@code MM/dd/yyyy} first fallback pattern. */
+        MONTH_FIRST,
+        /** {@code 03/04/2024} is April 3rd. */
+        DAY_FIRST,
+        /** {@code 03/04/2024} is rejected. */
+        REJECT
+    }
+
+    private static final int LENGTH = 10;
+    private static final int INVALID = -1;
+
+    private final AmbiguousDatePolicy ambiguousDatePolicy;
+
+    @Autowired
+    public LocalDateParameterConverter(@Value("${holidaysInformation.ambiguousDatePolicy:MONTH_FIRST}") AmbiguousDatePolicy ambiguousDatePolicy) {
+        this.ambiguousDatePolicy = ambiguousDatePolicy;
+    }
+
+    @Override
+    public LocalDate convert(String source) {
+        String date = source.trim();
+        if (date.isEmpty()) {
+            return null;
+        }
+        if (date.length() != LENGTH) {
+            throw invalid(source);
+        }
+        char first = date.charAt(2);
+        char second = date.charAt(4);
+        if (second == date.charAt(7) && (second == '-' || second == '/')) {
+            return toLocalDate(source, number(date, 0, 4), number(date, 5, 7), number(date, 8, 10));
+        } else if (first == '.' && date.charAt(5) == '.') {
+            return toLocalDate(source, number(date, 6, 10), number(date, 3, 5), number(date, 0, 2));
+        } else if (first == '/' && date.charAt(5) == '/') {
+            return slashedDate(source, number(date, 6, 10), number(date, 0, 2), number(date, 3, 5));
+        }
+        throw invalid(source);
+    }
+
+    private LocalDate slashedDate(String source, int year, int firstField, int secondField) {
+        boolean monthFirst = isValid(year, firstField, secondField);
+        boolean dayFirst = isValid(year, secondField, firstField);
+        if (monthFirst && dayFirst && firstField != secondField) {
+            return switch (ambiguousDatePolicy) {
+                case MONTH_FIRST -> LocalDate.of(year, firstField, secondField);
+                case DAY_FIRST -> LocalDate.of(year, secondField, firstField);
+                case REJECT -> throw new IllegalArgumentException("Ambiguous date: " + source);
+            };
+        } else if (monthFirst) {
+            return LocalDate.of(year, firstField, secondField);
+        } else if (dayFirst) {
+            return LocalDate.of(year, secondField, firstField);
+        }
+        throw invalid(source);
+    }
+
+    private static LocalDate toLocalDate(String source, int year, int month, int day) {
+        if (!isValid(year, month, day)) {
+            throw invalid(source);
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static boolean isValid(int year, int month, int day) {
+        return year != INVALID && month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    private static int number(String date, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(String source) {
+        return new IllegalArgumentException("Unsupported date format: " + source);
+    }
+}
@@ -0,0 +1,43 @@
+package com.adamdr.holidayservice.startup;
+
+import com.adamdr.holidayservice.HolidayServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Boots the application with springfox enabled, downloads {@code /v3/api-docs} and writes it to the path given as the
+ * first argument, so the fast-startup profile can serve it without scanning the handlers, see
+ * {@code gradlew generateOpenApiSpec}.
+ */
+public final class OpenApiSpecGenerator {
+
+    private OpenApiSpecGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args[0]);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HolidayServiceApplication.class)
+                .properties("server.port=0", "holidaysSnapshot.enabled=false", "holidaysCache.refreshEnabled=false",
+                        "holidaysPairTable.enabled=false", "logging.level.com.adamdr.holidayservice=WARN")
+                .run();
+        try {
+            int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Can't generate OpenAPI spec, /v3/api-docs returned " + response.statusCode());
+            }
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, response.body());
+        } finally {
+            context.close();
+        }
+    }
+}
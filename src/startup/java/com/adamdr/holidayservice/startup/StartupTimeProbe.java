@@ -0,0 +1,134 @@
+package com.adamdr.holidayservice.startup;
+
+import com.adamdr.holidayservice.loadtest.UpstreamStandIn;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the application JVM to the first successful {@code /v1/holidays-information}
+ * response, against {@link UpstreamStandIn}. Every run starts a fresh JVM and stops it gracefully, once with the
+ * default profile, once with {@code fast-startup} and once more with the AppCDS archive when it exists, see
+ * {@code gradlew measureStartup}. With {@code startup.dumpArchive} it starts {@code fast-startup} once with
+ * {@code -XX:ArchiveClassesAtExit} instead, see {@code gradlew appCdsArchive}.
+ *
+ * <p>Settings are read from {@code startup.*} system properties: {@code classpath} of the application (jars only, as
+ * AppCDS skips directories), {@code args}, {@code runs}, {@code timeout}, {@code sharedArchive}, {@code dumpArchive}
+ * and {@code report}, a file the results are written to.
+ */
+public final class StartupTimeProbe {
+
+    private static final String MAIN_CLASS = "com.adamdr.holidayservice.HolidayServiceApplication";
+
+    private record Variant(String name, String profiles, List<String> jvmArgs) {}
+
+    private StartupTimeProbe() {}
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        List<String> appArgs = split(System.getProperty("startup.args", ""));
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.parse("PT" + System.getProperty("startup.timeout", "60s"));
+        String sharedArchive = System.getProperty("startup.sharedArchive");
+        String dumpArchive = System.getProperty("startup.dumpArchive");
+        String report = System.getProperty("startup.report");
+
+        List<Variant> variants = new ArrayList<>();
+        if (dumpArchive != null) {
+            runs = 1;
+            variants.add(new Variant("appcds-dump", "fast-startup", List.of("-XX:ArchiveClassesAtExit=" + dumpArchive)));
+        } else {
+            variants.add(new Variant("default", "default", List.of()));
+            variants.add(new Variant("fast-startup", "fast-startup", List.of()));
+            if (sharedArchive != null && Files.exists(Path.of(sharedArchive))) {
+                variants.add(new Variant("fast-startup+appcds", "fast-startup", List.of("-XX:SharedArchiveFile=" + sharedArchive)));
+            }
+        }
+
+        List<String> summaries = new ArrayList<>();
+        try (UpstreamStandIn upstreamStandIn = new UpstreamStandIn(1, 1, 0, 0)) {
+            upstreamStandIn.start();
+            for (Variant variant : variants) {
+                long[] startupMillis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    startupMillis[run] = measure(classpath, variant, appArgs, upstreamStandIn.url(), timeout);
+                }
+                Arrays.sort(startupMillis);
+                summaries.add(String.format("%s: runs=%d min=%d ms median=%d ms max=%d ms", variant.name(), runs,
+                        startupMillis[0], startupMillis[runs / 2], startupMillis[runs - 1]));
+            }
+        }
+        summaries.forEach(System.out::println);
+        if (report != null) {
+            Path reportPath = Path.of(report).toAbsolutePath();
+            Files.createDirectories(reportPath.getParent());
+            Files.write(reportPath, summaries, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long measure(String classpath, Variant variant, List<String> appArgs, String upstreamUrl, Duration timeout)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs());
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS, "--server.port=" + port, "--spring.profiles.active=" + variant.profiles(),
+                "--holidaysApiUrl=" + upstreamUrl, "--holidaysSnapshot.enabled=false", "--logging.level.root=WARN"));
+        command.addAll(appArgs);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/v1/holidays-information?date=2022-01-03&firstCountryCode=PL&secondCountryCode=DE"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                        System.getProperty("startup.credentials", "admin:admin").getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        try {
+            while (System.nanoTime() - start < timeout.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + " before responding");
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application did not respond within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+}
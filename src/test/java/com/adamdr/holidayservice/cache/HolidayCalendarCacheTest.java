@@ -0,0 +1,45 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HolidayCalendarCacheTest {
+
+    private final HolidayCalendarCache holidayCalendarCache =
+            new HolidayCalendarCache(100, Duration.ofHours(24), Duration.ofDays(7), Duration.ofHours(1));
+
+    @Test
+    public void shouldServeStaleCalendarUntilMaxStaleness() {
+        //given
+        long now = System.currentTimeMillis();
+        CachedHolidayCalendar fresh = cachedHolidayCalendar("PL", now);
+        CachedHolidayCalendar stale = cachedHolidayCalendar("DE", now - Duration.ofHours(25).toMillis());
+        CachedHolidayCalendar expired = cachedHolidayCalendar("FR", now - Duration.ofDays(8).toMillis());
+        //then
+        assertThat(holidayCalendarCache.isStale(fresh)).isFalse();
+        assertThat(holidayCalendarCache.isStale(stale)).isTrue();
+        assertThat(holidayCalendarCache.isExpired(stale)).isFalse();
+        assertThat(holidayCalendarCache.isExpired(expired)).isTrue();
+    }
+
+    @Test
+    public void shouldRefreshOnlyRecentlyAccessedCalendarsCloseToExpiry() {
+        //given
+        long now = System.currentTimeMillis();
+        holidayCalendarCache.put(new HolidayCalendarKey("PL", 2023), cachedHolidayCalendar("PL", now));
+        holidayCalendarCache.put(new HolidayCalendarKey("DE", 2023), cachedHolidayCalendar("DE", now - Duration.ofMinutes(23 * 60 + 30).toMillis()));
+        //when
+        List<HolidayCalendarKey> refreshCandidates = holidayCalendarCache.refreshCandidates(10);
+        //then
+        assertThat(refreshCandidates).containsExactly(new HolidayCalendarKey("DE", 2023));
+    }
+
+    private CachedHolidayCalendar cachedHolidayCalendar(String countryCode, long loadedAt) {
+        return new CachedHolidayCalendar(HolidayCalendar.of(countryCode, 2023, List.of()), loadedAt);
+    }
+}
@@ -0,0 +1,61 @@
+package com.adamdr.holidayservice.cache;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HolidayCalendarSnapshotStoreTest {
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private final HolidayCalendar holidayCalendar = HolidayCalendar.of("PL", 2023, List.of(
+            new PublicHolidayDto(LocalDate.of(2023, 1, 1), "Nowy Rok", "New Year's Day", "PL"),
+            new PublicHolidayDto(LocalDate.of(2023, 1, 6), "Święto Trzech Króli", "Epiphany", "PL")));
+
+    @Test
+    public void shouldReadCalendarsWrittenBeforeRestart() {
+        //given
+        Path snapshotPath = snapshotDirectory.resolve("holiday-calendars.snapshot");
+        HolidayCalendarSnapshotStore holidayCalendarSnapshotStore = new HolidayCalendarSnapshotStore(true, snapshotPath.toString(), Duration.ofHours(1));
+        holidayCalendarSnapshotStore.store(new CachedHolidayCalendar(holidayCalendar, 1_000L));
+        holidayCalendarSnapshotStore.flush();
+        //when
+        HolidayCalendarSnapshotStore restartedHolidayCalendarSnapshotStore = new HolidayCalendarSnapshotStore(true, snapshotPath.toString(), Duration.ofHours(1));
+        //then
+        assertThat(restartedHolidayCalendarSnapshotStore.size()).isEqualTo(1);
+        assertThat(restartedHolidayCalendarSnapshotStore.find(new HolidayCalendarKey("PL", 2023)))
+                .hasValueSatisfying(restoredHolidayCalendar -> {
+                    assertThat(restoredHolidayCalendar.loadedAt()).isEqualTo(1_000L);
+                    assertThat(restoredHolidayCalendar.holidayCalendar().toPublicHolidays()).isEqualTo(holidayCalendar.toPublicHolidays());
+                });
+        assertThat(restartedHolidayCalendarSnapshotStore.find(new HolidayCalendarKey("PL", 2024))).isEmpty();
+    }
+
+    @Test
+    public void shouldIgnoreCorruptedSnapshot() throws IOException {
+        //given
+        Path snapshotPath = snapshotDirectory.resolve("holiday-calendars.snapshot");
+        HolidayCalendarSnapshotStore holidayCalendarSnapshotStore = new HolidayCalendarSnapshotStore(true, snapshotPath.toString(), Duration.ofHours(1));
+        holidayCalendarSnapshotStore.store(new CachedHolidayCalendar(holidayCalendar, 1_000L));
+        holidayCalendarSnapshotStore.flush();
+        byte[] snapshot = Files.readAllBytes(snapshotPath);
+        snapshot[snapshot.length - 1] ^= 0x7F;
+        Files.write(snapshotPath, snapshot);
+        //when
+        HolidayCalendarSnapshotStore restartedHolidayCalendarSnapshotStore = new HolidayCalendarSnapshotStore(true, snapshotPath.toString(), Duration.ofHours(1));
+        //then
+        assertThat(restartedHolidayCalendarSnapshotStore.size()).isZero();
+        assertThat(restartedHolidayCalendarSnapshotStore.find(new HolidayCalendarKey("PL", 2023))).isEmpty();
+    }
+}
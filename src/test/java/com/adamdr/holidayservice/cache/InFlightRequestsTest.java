@@ -0,0 +1,54 @@
+package com.adamdr.holidayservice.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InFlightRequestsTest {
+
+    private final ConcurrentMap<String, Mono<Integer>> inFlight = new ConcurrentHashMap<>();
+    private final InFlightRequests<String, Integer> inFlightRequests = new InFlightRequests<>(inFlight);
+
+    @Test
+    public void shouldShareRequestUntilItTerminates() {
+        //given
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<Integer> response = Sinks.one();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        //when
+        inFlightRequests.join("PL", () -> {
+            executions.incrementAndGet();
+            return response.asMono();
+        }).subscribe(values::add);
+        inFlightRequests.join("PL", () -> {
+            executions.incrementAndGet();
+            return response.asMono();
+        }).subscribe(values::add);
+        response.tryEmitValue(1);
+        //then
+        assertThat(values).containsExactly(1, 1);
+        assertThat(executions).hasValue(1);
+        assertThat(inFlightRequests.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotRemoveNewerRequestRegisteredForSameKey() {
+        //given
+        Sinks.One<Integer> firstResponse = Sinks.one();
+        inFlightRequests.join("PL", firstResponse::asMono).subscribe();
+        Mono<Integer> newerRequest = Mono.just(2);
+        inFlight.put("PL", newerRequest);
+        //when
+        firstResponse.tryEmitValue(1);
+        //then
+        assertThat(inFlight).containsEntry("PL", newerRequest);
+    }
+}
@@ -0,0 +1,78 @@
+package com.adamdr.holidayservice.calendar;
+
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommonHolidayTableTest {
+
+    private static final List<String> COUNTRY_CODES = List.of("AT", "CZ", "DE", "FR", "PL", "SK");
+
+    @Test
+    public void shouldMatchBitsetSearchForEveryPair() {
+        //given
+        List<HolidayCalendar> holidayCalendars = randomCalendars(new Random(7));
+        //when
+        CommonHolidayTable table = CommonHolidayTable.build(2023, holidayCalendars, ForkJoinPool.commonPool());
+        //then
+        assertThat(table.countries()).isEqualTo(COUNTRY_CODES.size());
+        assertSameAsBitsetSearch(table, holidayCalendars);
+    }
+
+    @Test
+    public void shouldRecomputeOnlyUpdatedCountry() {
+        //given
+        List<HolidayCalendar> holidayCalendars = randomCalendars(new Random(7));
+        CommonHolidayTable table = CommonHolidayTable.build(2023, holidayCalendars, ForkJoinPool.commonPool());
+        HolidayCalendar updatedCalendar = HolidayCalendar.of("DE", 2023, List.of(
+                new PublicHolidayDto(LocalDate.of(2023, 1, 1), "Neujahr", "New Year's Day", "DE"),
+                new PublicHolidayDto(LocalDate.of(2023, 12, 25), "Erster Weihnachtstag", "Christmas Day", "DE")));
+        holidayCalendars.set(COUNTRY_CODES.indexOf("DE"), updatedCalendar);
+        //when
+        CommonHolidayTable updatedTable = table.withCalendar(updatedCalendar, ForkJoinPool.commonPool());
+        //then
+        assertThat(updatedTable.calendar("DE")).isEqualTo(updatedCalendar);
+        assertSameAsBitsetSearch(updatedTable, holidayCalendars);
+        assertThat(updatedTable.withCalendar(updatedCalendar, ForkJoinPool.commonPool())).isSameAs(updatedTable);
+    }
+
+    @Test
+    public void shouldReportUnknownPair() {
+        //given
+        CommonHolidayTable table = CommonHolidayTable.build(2023, randomCalendars(new Random(7)), ForkJoinPool.commonPool());
+        //then
+        assertThat(table.nextCommonHoliday("PL", "US", 1)).isEqualTo(CommonHolidayTable.UNKNOWN_PAIR);
+    }
+
+    private void assertSameAsBitsetSearch(CommonHolidayTable table, List<HolidayCalendar> holidayCalendars) {
+        for (HolidayCalendar first : holidayCalendars) {
+            for (HolidayCalendar second : holidayCalendars) {
+                for (int dayOfYear = 1; dayOfYear <= 366; dayOfYear++) {
+                    assertThat(table.nextCommonHoliday(first.countryCode(), second.countryCode(), dayOfYear))
+                            .isEqualTo(HolidayCalendar.nextCommonHoliday(first, second, dayOfYear));
+                }
+            }
+        }
+    }
+
+    private List<HolidayCalendar> randomCalendars(Random random) {
+        List<HolidayCalendar> holidayCalendars = new ArrayList<>();
+        for (String countryCode : COUNTRY_CODES) {
+            List<PublicHolidayDto> publicHolidays = new ArrayList<>();
+            publicHolidays.add(new PublicHolidayDto(LocalDate.of(2023, 1, 1), "New Year", "New Year", countryCode));
+            for (int i = 0; i < 12; i++) {
+                LocalDate date = LocalDate.ofYearDay(2023, 1 + random.nextInt(365));
+                publicHolidays.add(new PublicHolidayDto(date, countryCode + date, countryCode + date, countryCode));
+            }
+            holidayCalendars.add(HolidayCalendar.of(countryCode, 2023, publicHolidays));
+        }
+        return holidayCalendars;
+    }
+}
@@ -0,0 +1,54 @@
+package com.adamdr.holidayservice.calendar;
+
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HolidayCalendarTest {
+
+    private final HolidayCalendar polishHolidayCalendar = HolidayCalendar.of("PL", 2024, List.of(
+            new PublicHolidayDto(LocalDate.of(2024, 1, 1), "Nowy Rok", "New Year's Day", "PL"),
+            new PublicHolidayDto(LocalDate.of(2024, 4, 1), "Drugi Dzień Wielkanocy", "Easter Monday", "PL"),
+            new PublicHolidayDto(LocalDate.of(2024, 12, 31), "Sylwester", "New Year's Eve", "PL")));
+
+    private final HolidayCalendar britishHolidayCalendar = HolidayCalendar.of("GB", 2024, List.of(
+            new PublicHolidayDto(LocalDate.of(2024, 1, 1), "New Year's Day", "New Year's Day", "GB"),
+            new PublicHolidayDto(LocalDate.of(2024, 3, 29), "Good Friday", "Good Friday", "GB"),
+            new PublicHolidayDto(LocalDate.of(2024, 4, 1), "Easter Monday", "Easter Monday", "GB"),
+            new PublicHolidayDto(LocalDate.of(2024, 12, 31), "New Year's Eve", "New Year's Eve", "GB")));
+
+    @Test
+    public void shouldFindNextCommonHolidayAfterGivenDay() {
+        //when
+        int dayOfYear = HolidayCalendar.nextCommonHoliday(polishHolidayCalendar, britishHolidayCalendar, 2);
+        //then
+        assertThat(polishHolidayCalendar.date(dayOfYear)).isEqualTo(LocalDate.of(2024, 4, 1));
+        assertThat(polishHolidayCalendar.localName(dayOfYear)).isEqualTo("Drugi Dzień Wielkanocy");
+        assertThat(britishHolidayCalendar.localName(dayOfYear)).isEqualTo("Easter Monday");
+    }
+
+    @Test
+    public void shouldFindCommonHolidayOnLastDayOfLeapYear() {
+        //when
+        int dayOfYear = HolidayCalendar.nextCommonHoliday(List.of(polishHolidayCalendar, britishHolidayCalendar), 93);
+        //then
+        assertThat(dayOfYear).isEqualTo(366);
+        assertThat(HolidayCalendar.nextCommonHoliday(polishHolidayCalendar, britishHolidayCalendar, 367)).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldKeepHolidaysInDateOrder() {
+        //when
+        List<PublicHolidayDto> publicHolidays = britishHolidayCalendar.toPublicHolidays();
+        //then
+        assertThat(publicHolidays)
+                .extracting(PublicHolidayDto::date)
+                .containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 29), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 12, 31));
+        assertThat(britishHolidayCalendar.name(LocalDate.of(2024, 3, 29).getDayOfYear())).isEqualTo("Good Friday");
+        assertThat(britishHolidayCalendar.isHoliday(LocalDate.of(2024, 3, 30).getDayOfYear())).isFalse();
+    }
+}
@@ -0,0 +1,53 @@
+package com.adamdr.holidayservice.config;
+
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
+import com.adamdr.holidayservice.dto.HolidayDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CodecConfigTest {
+
+    private final HolidayDto holiday = new HolidayDto(LocalDate.of(2022, 4, 18), "Drugi Dzień Wielkanocy", "Easter Monday");
+
+    @Test
+    public void shouldWriteDatesLikeJson() throws Exception {
+        //given
+        ObjectMapper cborMapper = CodecConfig.cborMapper(objectMapperBuilder());
+        ObjectMapper smileMapper = CodecConfig.smileMapper(objectMapperBuilder());
+        //then
+        assertThat(cborMapper.readTree(cborMapper.writeValueAsBytes(holiday)).get("date").asText()).isEqualTo("2022-04-18");
+        assertThat(smileMapper.readTree(smileMapper.writeValueAsBytes(holiday)).get("date").asText()).isEqualTo("2022-04-18");
+    }
+
+    @Test
+    public void shouldWriteSmallerPayloadsThanJson() throws Exception {
+        //given
+        List<HolidayBatchResultDto> batch = LongStream.range(0, 100)
+                .mapToObj(index -> new HolidayBatchResultDto(index, holiday, null))
+                .toList();
+        //when
+        int json = size(objectMapperBuilder().build(), batch);
+        int cbor = size(CodecConfig.cborMapper(objectMapperBuilder()), batch);
+        int smile = size(CodecConfig.smileMapper(objectMapperBuilder()), batch);
+        //then
+        assertThat(cbor).isLessThan(json);
+        assertThat(smile).isLessThan(json);
+    }
+
+    private static int size(ObjectMapper objectMapper, Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(value).length;
+    }
+
+    private static Jackson2ObjectMapperBuilder objectMapperBuilder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
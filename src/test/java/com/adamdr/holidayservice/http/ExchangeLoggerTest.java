@@ -0,0 +1,57 @@
+package com.adamdr.holidayservice.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExchangeLoggerTest {
+
+    @Test
+    public void shouldAlwaysLogFailedExchangesAndSkipUnsampledOnes() throws InterruptedException {
+        //given
+        List<ExchangeLogger.Exchange> written = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        ExchangeLogger exchangeLogger = new ExchangeLogger(true, 0.0, 16, exchange -> {
+            written.add(exchange);
+            latch.countDown();
+        });
+        //when
+        exchangeLogger.submit(new ExchangeLogger.Exchange("GET", "/{year}/{countryCode}", 200, 1_000_000, 512, null));
+        exchangeLogger.submit(new ExchangeLogger.Exchange("GET", "/{year}/{countryCode}", 404, 1_000_000, 0, null));
+        exchangeLogger.submit(new ExchangeLogger.Exchange("GET", "/{year}/{countryCode}", 0, 1_000_000, -1, "ConnectException"));
+        //then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(written).extracting(ExchangeLogger.Exchange::status).containsExactly(404, 0);
+        exchangeLogger.stop();
+    }
+
+    @Test
+    public void shouldDropRecordsInsteadOfBlockingWhenBufferIsFull() throws InterruptedException {
+        //given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExchangeLogger exchangeLogger = new ExchangeLogger(true, 1.0, 2, exchange -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        exchangeLogger.submit(new ExchangeLogger.Exchange("GET", "/{year}/{countryCode}", 200, 1_000_000, 512, null));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        //when
+        for (int i = 0; i < 5; i++) {
+            exchangeLogger.submit(new ExchangeLogger.Exchange("GET", "/{year}/{countryCode}", 200, 1_000_000, 512, null));
+        }
+        //then
+        assertThat(exchangeLogger.dropped()).isEqualTo(3);
+        release.countDown();
+        exchangeLogger.stop();
+    }
+}
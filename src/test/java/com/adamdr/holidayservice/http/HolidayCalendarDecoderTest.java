@@ -0,0 +1,82 @@
+package com.adamdr.holidayservice.http;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarKey;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HolidayCalendarDecoderTest {
+
+    private static final String BODY = "[{\"date\":\"2023-01-01\",\"localName\":\"Nowy Rok\",\"name\":\"New Year's Day\",\"countryCode\":\"PL\","
+            + "\"fixed\":true,\"global\":true,\"counties\":null,\"launchYear\":null,\"types\":[\"Public\"]},"
+            + "{\"date\":\"2023-05-03\",\"localName\":\"Święto Narodowe Trzeciego Maja\",\"name\":\"Constitution Day\",\"countryCode\":\"PL\","
+            + "\"fixed\":true,\"global\":false,\"counties\":[\"PL-02\",\"PL-04\"],\"launchYear\":1791,\"types\":[\"Public\",\"Observance\"]}]";
+
+    private final HolidayCalendarDecoder holidayCalendarDecoder = new HolidayCalendarDecoder(16, 1024);
+
+    @Test
+    public void shouldDecodeHolidaysSplitAcrossBuffers() {
+        //given
+        Flux<DataBuffer> body = split(BODY, 7);
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = holidayCalendarDecoder.decode(body, new HolidayCalendarKey("PL", 2023));
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.toPublicHolidays()).containsExactly(
+                        new PublicHolidayDto(LocalDate.of(2023, 1, 1), "Nowy Rok", "New Year's Day", "PL"),
+                        new PublicHolidayDto(LocalDate.of(2023, 5, 3), "Święto Narodowe Trzeciego Maja", "Constitution Day", "PL")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldFailOnBodyAboveLimit() {
+        //given
+        HolidayCalendarDecoder limitedHolidayCalendarDecoder = new HolidayCalendarDecoder(16, 64);
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = limitedHolidayCalendarDecoder.decode(split(BODY, 32), new HolidayCalendarKey("PL", 2023));
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .expectError(DataBufferLimitException.class)
+                .verify();
+    }
+
+    @Test
+    public void shouldFailOnTruncatedBody() {
+        //given
+        Flux<DataBuffer> body = split(BODY.substring(0, BODY.length() / 2), 32);
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = holidayCalendarDecoder.decode(body, new HolidayCalendarKey("PL", 2023));
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    private Flux<DataBuffer> split(String body, int bufferSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> dataBuffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += bufferSize) {
+            byte[] part = new byte[Math.min(bufferSize, bytes.length - offset)];
+            System.arraycopy(bytes, offset, part, 0, part.length);
+            dataBuffers.add(DefaultDataBufferFactory.sharedInstance.wrap(part));
+        }
+        return Flux.fromIterable(dataBuffers);
+    }
+}
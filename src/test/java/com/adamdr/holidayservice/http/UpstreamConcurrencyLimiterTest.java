@@ -0,0 +1,52 @@
+package com.adamdr.holidayservice.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpstreamConcurrencyLimiterTest {
+
+    private final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(new SimpleMeterRegistry(), true, 1, 1);
+
+    @Test
+    public void shouldQueueCallsOverLimitAndRejectWhenQueueIsFull() {
+        //given
+        Sinks.One<String> first = Sinks.one();
+        Mono<String> firstCall = limiter.execute(first.asMono());
+        Mono<String> secondCall = limiter.execute(Mono.just("second"));
+        Mono<String> thirdCall = limiter.execute(Mono.just("third"));
+        //then
+        StepVerifier
+                .create(Mono.zip(firstCall, secondCall).map(tuple -> tuple.getT1() + "," + tuple.getT2()))
+                .then(() -> {
+                    assertThat(limiter.inFlight()).isEqualTo(1);
+                    assertThat(limiter.queued()).isEqualTo(1);
+                    StepVerifier.create(thirdCall).expectError(UpstreamUnavailableException.class).verify();
+                    first.tryEmitValue("first");
+                })
+                .expectNext("first,second")
+                .verifyComplete();
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    public void shouldPassPermitOnWhenQueuedCallIsCancelled() {
+        //given
+        Sinks.One<String> first = Sinks.one();
+        Mono<String> firstCall = limiter.execute(first.asMono());
+        Mono<String> secondCall = limiter.execute(Mono.just("second"));
+        //then
+        StepVerifier.create(firstCall)
+                .then(() -> StepVerifier.create(secondCall).thenCancel().verify())
+                .then(() -> assertThat(limiter.queued()).isZero())
+                .then(() -> first.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,51 @@
+package com.adamdr.holidayservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingReactiveAuthenticationManagerTest {
+
+    private final AtomicInteger passwordChecks = new AtomicInteger();
+    private final ReactiveAuthenticationManager delegate = authentication -> {
+        passwordChecks.incrementAndGet();
+        return "admin".equals(authentication.getCredentials())
+                ? Mono.just(new UsernamePasswordAuthenticationToken(authentication.getName(), null, List.of()))
+                : Mono.error(new BadCredentialsException("Invalid Credentials"));
+    };
+    private final CachingReactiveAuthenticationManager cachingReactiveAuthenticationManager =
+            new CachingReactiveAuthenticationManager(delegate, Duration.ofMinutes(1), 100);
+
+    @Test
+    public void shouldCheckPasswordOnceForRepeatedCredentials() {
+        //when
+        Mono<Authentication> first = cachingReactiveAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        Mono<Authentication> second = cachingReactiveAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        //then
+        StepVerifier.create(first.then(second))
+                .expectNextMatches(Authentication::isAuthenticated)
+                .verifyComplete();
+        assertThat(passwordChecks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheRejectedCredentials() {
+        //when
+        Mono<Authentication> first = cachingReactiveAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "wrong"));
+        Mono<Authentication> second = cachingReactiveAuthenticationManager.authenticate(new UsernamePasswordAuthenticationToken("admin", "wrong"));
+        //then
+        StepVerifier.create(first).expectError(BadCredentialsException.class).verify();
+        StepVerifier.create(second).expectError(BadCredentialsException.class).verify();
+        assertThat(passwordChecks.get()).isEqualTo(2);
+    }
+}
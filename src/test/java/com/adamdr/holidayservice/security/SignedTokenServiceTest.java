@@ -0,0 +1,62 @@
+package com.adamdr.holidayservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SignedTokenServiceTest {
+
+    private final Authentication admin = new UsernamePasswordAuthenticationToken("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @Test
+    public void shouldVerifyIssuedToken() {
+        //given
+        SignedTokenService signedTokenService = new SignedTokenService("secret", Duration.ofMinutes(15));
+        String token = signedTokenService.issue(admin);
+        //when
+        Authentication authentication = signedTokenService.verify(token);
+        //then
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("admin");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    public void shouldRejectTamperedToken() {
+        //given
+        SignedTokenService signedTokenService = new SignedTokenService("secret", Duration.ofMinutes(15));
+        String token = signedTokenService.issue(admin);
+        String tamperedToken = new SignedTokenService("other-secret", Duration.ofMinutes(15)).issue(admin);
+        //then
+        assertThatThrownBy(() -> signedTokenService.verify(tamperedToken)).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> signedTokenService.verify(token.substring(1))).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    public void shouldRejectExpiredToken() {
+        //given
+        Instant issuedAt = Instant.parse("2023-01-01T00:00:00Z");
+        String token = new SignedTokenService("secret", Duration.ofMinutes(15), Clock.fixed(issuedAt, ZoneOffset.UTC)).issue(admin);
+        SignedTokenService signedTokenService = new SignedTokenService("secret", Duration.ofMinutes(15),
+                Clock.fixed(issuedAt.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+        //then
+        assertThatThrownBy(() -> signedTokenService.verify(token)).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    public void shouldRequireTokenSecret() {
+        //then
+        assertThatThrownBy(() -> new SignedTokenService(" ", Duration.ofMinutes(15))).isInstanceOf(IllegalStateException.class);
+    }
+}
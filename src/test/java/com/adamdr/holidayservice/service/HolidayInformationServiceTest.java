@@ -1,8 +1,15 @@
 package com.adamdr.holidayservice.service;
 
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.CommonHolidayDto;
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
+import com.adamdr.holidayservice.dto.HolidayQueryDto;
 import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.metrics.HolidayServiceMetrics;
 import com.adamdr.holidayservice.service.impl.HolidayInformationServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -15,21 +22,24 @@ import reactor.test.StepVerifier;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest
-@ContextConfiguration(classes = {HolidayInformationServiceImpl.class})
+@ContextConfiguration(classes = {HolidayInformationServiceImpl.class, HolidayServiceMetrics.class, SimpleMeterRegistry.class})
 public class HolidayInformationServiceTest {
 
     @Autowired
     HolidayInformationService holidayInformationService;
     @MockBean
     PublicHolidayService publicHolidayService;
+    @Autowired
+    MeterRegistry meterRegistry;
 
     @Test
     public void shouldThrowNoSuchElementExceptionAtCountryCodeValidation() {
@@ -46,13 +56,28 @@ public class HolidayInformationServiceTest {
                 .verify();
     }
 
+    @Test
+    public void shouldCountCountryCodeValidationFailures() {
+        //given
+        double failuresBefore = meterRegistry.get("holidays.validation.failures").tag("reason", "country_code").counter().count();
+        //when
+        Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(LocalDate.of(2022, 1, 5), "PL", "XX");
+        //then
+        StepVerifier
+                .create(holidayDtoMono)
+                .expectError(NoSuchElementException.class)
+                .verify();
+        assertThat(meterRegistry.get("holidays.validation.failures").tag("reason", "country_code").counter().count())
+                .isEqualTo(failuresBefore + 1);
+    }
+
     @Test
     public void shouldThrowNoSuchElementExceptionForEmptyResponseFromPublicHolidayService() {
         //given
         LocalDate date = LocalDate.of(2022, 1, 5);
         String firstCountryCode = "PL";
         String secondCountryCode = "GB";
-        when(publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(any(LocalDate.class), anyString())).thenReturn(Flux.empty());
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString())).thenReturn(Mono.empty());
         //when
         Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, firstCountryCode, secondCountryCode);
         //then
@@ -65,17 +90,16 @@ public class HolidayInformationServiceTest {
     @Test
     public void shouldThrowNoSuchElementExceptionForNoMatchingHolidays() {
         //given
-        AtomicInteger counter = new AtomicInteger(1);
         LocalDate date = LocalDate.of(2022, 12, 27);
         String firstCountryCode = "PL";
         String secondCountryCode = "GB";
-        when(publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(any(LocalDate.class), anyString()))
-                .thenAnswer(invocation -> Flux.just(
-                        new PublicHolidayDto(invocation.getArgument(0, LocalDate.class).plusMonths(counter.getAndIncrement() + 3L).plusDays(counter.getAndIncrement() * 7L),
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), firstCountryCode.equals(invocation.getArgument(1)) ? 3 : 4, 10),
                                 invocation.getArgument(1), invocation.getArgument(1), invocation.getArgument(1)),
-                        new PublicHolidayDto(invocation.getArgument(0, LocalDate.class).plusMonths(counter.getAndIncrement() + 5L).plusDays(counter.getAndIncrement() * 9L),
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), firstCountryCode.equals(invocation.getArgument(1)) ? 5 : 6, 20),
                                 invocation.getArgument(1), invocation.getArgument(1), invocation.getArgument(1))
-                ));
+                ))));
         //when
         Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, firstCountryCode, secondCountryCode);
         //then
@@ -88,25 +112,194 @@ public class HolidayInformationServiceTest {
     @Test
     public void shouldReturnHolidayDto() {
         //given
-        AtomicInteger localNameListCounter = new AtomicInteger(0);
-        List<String> localNameList = List.of("Drugi Dzień Wielkanocy", "Easter Monday");
         LocalDate date = LocalDate.of(2022, 1, 5);
         String firstCountryCode = "PL";
         String secondCountryCode = "GB";
-        when(publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(any(LocalDate.class), anyString()))
-                .thenAnswer(invocation -> Flux.just(
-                        new PublicHolidayDto(LocalDate.of(2022, 4, 18), localNameList.get(localNameListCounter.getAndIncrement()), "Easter Monday", invocation.getArgument(1))
-                ));
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(2022, 4, 18), firstCountryCode.equals(invocation.getArgument(1)) ? "Drugi Dzień Wielkanocy" : "Easter Monday",
+                                "Easter Monday", invocation.getArgument(1))
+                ))));
         //when
         Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, firstCountryCode, secondCountryCode);
         //then
         StepVerifier
                 .create(holidayDtoMono)
                 .consumeNextWith(holidayDto -> {
-                    assertThat(holidayDto.date()).isAfter(date);
-                    assertThat(holidayDto.name1()).isNotBlank();
-                    assertThat(holidayDto.name2()).isNotBlank();
+                    assertThat(holidayDto.date()).isEqualTo(LocalDate.of(2022, 4, 18));
+                    assertThat(holidayDto.name1()).isEqualTo("Drugi Dzień Wielkanocy");
+                    assertThat(holidayDto.name2()).isEqualTo("Easter Monday");
                 })
                 .verifyComplete();
     }
+
+    @Test
+    public void shouldReturnHolidayDtoFromNextYearWhenNoCommonHolidayIsLeftThisYear() {
+        //given
+        LocalDate date = LocalDate.of(2022, 12, 20);
+        String firstCountryCode = "PL";
+        String secondCountryCode = "GB";
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 1, 1), "New Year's Day", "New Year's Day", invocation.getArgument(1)),
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 12, firstCountryCode.equals(invocation.getArgument(1)) ? 24 : 26),
+                                invocation.getArgument(1), invocation.getArgument(1), invocation.getArgument(1))
+                ))));
+        //when
+        Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, firstCountryCode, secondCountryCode);
+        //then
+        StepVerifier
+                .create(holidayDtoMono)
+                .consumeNextWith(holidayDto -> assertThat(holidayDto.date()).isEqualTo(LocalDate.of(2023, 1, 1)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldFailWhenCurrentYearCalendarFailsEvenIfNextYearHasCommonHoliday() {
+        //given
+        LocalDate date = LocalDate.of(2022, 12, 20);
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0, Integer.class) == 2022
+                        ? Mono.error(new RuntimeException("Response from Public Holiday API with status code = 503"))
+                        : Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                                new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 1, 1), "New Year's Day", "New Year's Day", invocation.getArgument(1))))));
+        //when
+        Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, "PL", "GB");
+        //then
+        StepVerifier
+                .create(holidayDtoMono)
+                .expectErrorMessage("Response from Public Holiday API with status code = 503")
+                .verify();
+    }
+
+    @Test
+    public void shouldIgnoreSpeculativeNextYearErrorWhenCurrentYearHasCommonHoliday() {
+        //given
+        LocalDate date = LocalDate.of(2022, 12, 20);
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0, Integer.class) == 2023
+                        ? Mono.error(new RuntimeException("Response from Public Holiday API with status code = 503"))
+                        : Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                                new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 12, 26), "Boxing Day", "Boxing Day", invocation.getArgument(1))))));
+        //when
+        Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, "PL", "GB");
+        //then
+        StepVerifier
+                .create(holidayDtoMono)
+                .consumeNextWith(holidayDto -> assertThat(holidayDto.date()).isEqualTo(LocalDate.of(2022, 12, 26)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldNotLoadNextYearWhenCommonHolidayIsFoundEarlyInTheYear() {
+        //given
+        LocalDate date = LocalDate.of(2022, 3, 1);
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 5, 1), "Labour Day", "Labour Day", invocation.getArgument(1))
+                ))));
+        //when
+        Mono<HolidayDto> holidayDtoMono = holidayInformationService.getHolidayInformation(date, "PL", "DE");
+        //then
+        StepVerifier
+                .create(holidayDtoMono)
+                .consumeNextWith(holidayDto -> assertThat(holidayDto.date()).isEqualTo(LocalDate.of(2022, 5, 1)))
+                .verifyComplete();
+        verify(publicHolidayService, times(0)).getHolidayCalendar(2023, "PL");
+        verify(publicHolidayService, times(0)).getHolidayCalendar(2023, "DE");
+    }
+
+    @Test
+    public void shouldThrowNoSuchElementExceptionForTooFewCountries() {
+        //given
+        LocalDate date = LocalDate.of(2022, 1, 5);
+        //when
+        Mono<CommonHolidayDto> commonHolidayDtoMono = holidayInformationService.getCommonHolidayInformation(date, List.of("PL", "PL"));
+        //then
+        StepVerifier
+                .create(commonHolidayDtoMono)
+                .expectError(NoSuchElementException.class)
+                .verify();
+    }
+
+    @Test
+    public void shouldReturnCommonHolidayDtoForAllCountries() {
+        //given
+        LocalDate date = LocalDate.of(2022, 1, 5);
+        List<String> countryCodes = List.of("PL", "DE", "FR");
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(2022, 1, 6), "Epiphany", "Epiphany", invocation.getArgument(1)),
+                        new PublicHolidayDto(LocalDate.of(2022, 4, 18), "Easter Monday " + invocation.getArgument(1), "Easter Monday", invocation.getArgument(1))
+                ).subList("FR".equals(invocation.getArgument(1)) ? 1 : 0, 2))));
+        //when
+        Mono<CommonHolidayDto> commonHolidayDtoMono = holidayInformationService.getCommonHolidayInformation(date, countryCodes);
+        //then
+        StepVerifier
+                .create(commonHolidayDtoMono)
+                .consumeNextWith(commonHolidayDto -> {
+                    assertThat(commonHolidayDto.date()).isEqualTo(LocalDate.of(2022, 4, 18));
+                    assertThat(commonHolidayDto.localNames()).containsOnlyKeys(countryCodes);
+                    assertThat(commonHolidayDto.localNames()).containsEntry("DE", "Easter Monday DE");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldReturnBatchResultsInOrderAndFetchEachCalendarOnce() {
+        //given
+        LocalDate date = LocalDate.of(2022, 1, 5);
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(2022, 4, 18), "Easter Monday " + invocation.getArgument(1), "Easter Monday", invocation.getArgument(1))
+                ))));
+        Flux<HolidayQueryDto> holidayQueries = Flux.just(
+                new HolidayQueryDto(date, "PL", "GB"),
+                new HolidayQueryDto(date, "GB", "PL"),
+                new HolidayQueryDto(date, "POL", "GB"),
+                new HolidayQueryDto(null, "PL", "GB"));
+        //when
+        Flux<HolidayBatchResultDto> holidayBatchResultDtoFlux = holidayInformationService.getHolidayInformation(holidayQueries);
+        //then
+        StepVerifier
+                .create(holidayBatchResultDtoFlux)
+                .consumeNextWith(holidayBatchResultDto -> {
+                    assertThat(holidayBatchResultDto.index()).isEqualTo(0);
+                    assertThat(holidayBatchResultDto.holiday().name1()).isEqualTo("Easter Monday PL");
+                })
+                .consumeNextWith(holidayBatchResultDto -> {
+                    assertThat(holidayBatchResultDto.index()).isEqualTo(1);
+                    assertThat(holidayBatchResultDto.holiday().name1()).isEqualTo("Easter Monday GB");
+                })
+                .consumeNextWith(holidayBatchResultDto -> {
+                    assertThat(holidayBatchResultDto.index()).isEqualTo(2);
+                    assertThat(holidayBatchResultDto.error()).isEqualTo("Country codes validation failed");
+                })
+                .consumeNextWith(holidayBatchResultDto -> assertThat(holidayBatchResultDto.error()).isEqualTo("Date validation failed"))
+                .verifyComplete();
+        verify(publicHolidayService, times(1)).getHolidayCalendar(2022, "PL");
+        verify(publicHolidayService, times(1)).getHolidayCalendar(2022, "GB");
+    }
+
+    @Test
+    public void shouldReturnCommonHolidaysWithinRangeAcrossYears() {
+        //given
+        LocalDate from = LocalDate.of(2022, 1, 2);
+        LocalDate to = LocalDate.of(2023, 4, 18);
+        when(publicHolidayService.getHolidayCalendar(anyInt(), anyString()))
+                .thenAnswer(invocation -> Mono.just(HolidayCalendar.of(invocation.getArgument(1, String.class), invocation.getArgument(0, Integer.class), List.of(
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 1, 1), "New Year", "New Year", invocation.getArgument(1)),
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), 4, 18), "Holiday", "Holiday", invocation.getArgument(1)),
+                        new PublicHolidayDto(LocalDate.of(invocation.getArgument(0, Integer.class), "PL".equals(invocation.getArgument(1)) ? 5 : 6, 3), "Other", "Other", invocation.getArgument(1))
+                ))));
+        //when
+        Flux<CommonHolidayDto> commonHolidayDtoFlux = holidayInformationService.getCommonHolidays(from, to, List.of("PL", "GB"));
+        //then
+        StepVerifier
+                .create(commonHolidayDtoFlux)
+                .consumeNextWith(commonHolidayDto -> assertThat(commonHolidayDto.date()).isEqualTo(LocalDate.of(2022, 4, 18)))
+                .consumeNextWith(commonHolidayDto -> assertThat(commonHolidayDto.date()).isEqualTo(LocalDate.of(2023, 1, 1)))
+                .consumeNextWith(commonHolidayDto -> assertThat(commonHolidayDto.date()).isEqualTo(LocalDate.of(2023, 4, 18)))
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,175 @@
+package com.adamdr.holidayservice.service;
+
+import com.adamdr.holidayservice.cache.HolidayCalendarCache;
+import com.adamdr.holidayservice.cache.HolidayCalendarSnapshotStore;
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.http.CircuitBreaker;
+import com.adamdr.holidayservice.http.ExchangeLogger;
+import com.adamdr.holidayservice.http.HedgeDelayEstimator;
+import com.adamdr.holidayservice.http.HolidayCalendarDecoder;
+import com.adamdr.holidayservice.http.UpstreamConcurrencyLimiter;
+import com.adamdr.holidayservice.http.UpstreamUnavailableException;
+import com.adamdr.holidayservice.http.WebClientInstance;
+import com.adamdr.holidayservice.metrics.HolidayServiceMetrics;
+import com.adamdr.holidayservice.service.impl.PublicHolidayServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WebFluxTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ContextConfiguration(classes = {PublicHolidayServiceImpl.class, WebClientInstance.class, ExchangeLogger.class, HolidayCalendarCache.class, HolidayCalendarSnapshotStore.class,
+        HolidayCalendarDecoder.class, CircuitBreaker.class, UpstreamConcurrencyLimiter.class, HedgeDelayEstimator.class, HolidayServiceMetrics.class, SimpleMeterRegistry.class})
+public class PublicHolidayApiResilienceTest {
+
+    private static final String BODY = "[{\"date\":\"2023-01-01\",\"localName\":\"Nowy Rok\",\"name\":\"New Year's Day\",\"countryCode\":\"PL\"}]";
+
+    @Autowired
+    PublicHolidayService publicHolidayService;
+    @Autowired
+    CircuitBreaker circuitBreaker;
+    @Autowired
+    MeterRegistry meterRegistry;
+    static MockWebServer mockWebServer;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry propertyRegistry) {
+        propertyRegistry.add("holidaysApiUrl", () -> "http://localhost:" + mockWebServer.getPort() + "/");
+        propertyRegistry.add("holidaysApi.hedging.minDelay", () -> "100ms");
+        propertyRegistry.add("holidaysApi.hedging.maxDelay", () -> "100ms");
+        propertyRegistry.add("holidaysApi.circuitBreaker.minimumCalls", () -> "2");
+        propertyRegistry.add("holidaysApi.circuitBreaker.openDuration", () -> "1h");
+    }
+
+    @Test
+    public void shouldAnswerFromHedgedRequestWhenFirstRequestIsSlow() {
+        //given
+        AtomicInteger requests = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                MockResponse mockResponse = new MockResponse().setResponseCode(200).setBody(BODY);
+                return requests.getAndIncrement() == 0 ? mockResponse.setBodyDelay(5, TimeUnit.SECONDS) : mockResponse;
+            }
+        });
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = publicHolidayService.getHolidayCalendar(2023, "PL");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.size()).isEqualTo(1))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("holidays.api.hedged").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAnswerFromHedgedRequestWhenFirstRequestFails() {
+        //given
+        AtomicInteger requests = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                return requests.getAndIncrement() == 0 ? new MockResponse().setResponseCode(503) : new MockResponse().setResponseCode(200).setBody(BODY);
+            }
+        });
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = publicHolidayService.getHolidayCalendar(2023, "PL");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.size()).isEqualTo(1))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("holidays.api.hedged").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAnswerFromFirstRequestWhenHedgedRequestFails() {
+        //given
+        AtomicInteger requests = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                return requests.getAndIncrement() == 0
+                        ? new MockResponse().setResponseCode(200).setBody(BODY).setBodyDelay(300, TimeUnit.MILLISECONDS)
+                        : new MockResponse().setResponseCode(503);
+            }
+        });
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = publicHolidayService.getHolidayCalendar(2023, "PL");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.size()).isEqualTo(1))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("holidays.api.hedged").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFailFastWhenCircuitIsOpen() {
+        //given
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                return Objects.equals(recordedRequest.getPath(), "/2023/PL")
+                        ? new MockResponse().setResponseCode(200).setBody(BODY)
+                        : new MockResponse().setResponseCode(500);
+            }
+        });
+        StepVerifier.create(publicHolidayService.getHolidayCalendar(2024, "PL")).expectError(RuntimeException.class).verify();
+        int requestCountBefore = mockWebServer.getRequestCount();
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = publicHolidayService.getHolidayCalendar(2023, "PL");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(requestCountBefore);
+        assertThat(meterRegistry.get("holidays.api.circuit.rejected").counter().count()).isEqualTo(1);
+    }
+}
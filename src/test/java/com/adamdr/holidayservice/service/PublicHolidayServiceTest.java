@@ -1,8 +1,18 @@
 package com.adamdr.holidayservice.service;
 
+import com.adamdr.holidayservice.cache.HolidayCalendarCache;
+import com.adamdr.holidayservice.cache.HolidayCalendarSnapshotStore;
 import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.http.CircuitBreaker;
+import com.adamdr.holidayservice.http.ExchangeLogger;
+import com.adamdr.holidayservice.http.HedgeDelayEstimator;
+import com.adamdr.holidayservice.http.HolidayCalendarDecoder;
+import com.adamdr.holidayservice.http.UpstreamConcurrencyLimiter;
 import com.adamdr.holidayservice.http.WebClientInstance;
+import com.adamdr.holidayservice.metrics.HolidayServiceMetrics;
 import com.adamdr.holidayservice.service.impl.PublicHolidayServiceImpl;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -24,11 +34,13 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @WebFluxTest
-@ContextConfiguration(classes = {PublicHolidayServiceImpl.class, WebClientInstance.class})
+@ContextConfiguration(classes = {PublicHolidayServiceImpl.class, WebClientInstance.class, ExchangeLogger.class, HolidayCalendarCache.class, HolidayCalendarSnapshotStore.class,
+        HolidayCalendarDecoder.class, CircuitBreaker.class, UpstreamConcurrencyLimiter.class, HedgeDelayEstimator.class, HolidayServiceMetrics.class, SimpleMeterRegistry.class})
 public class PublicHolidayServiceTest {
 
     @Autowired
@@ -51,6 +63,7 @@ public class PublicHolidayServiceTest {
     @DynamicPropertySource
     static void properties(DynamicPropertyRegistry propertyRegistry) {
         propertyRegistry.add("holidaysApiUrl", () -> "http://localhost:" + mockWebServer.getPort() + "/");
+        propertyRegistry.add("holidaysApi.hedging.enabled", () -> "false");
     }
 
     @Test
@@ -164,4 +177,128 @@ public class PublicHolidayServiceTest {
                     .verifyComplete();
         }
     }
+
+    @Nested
+    class shouldServeRepeatedRequestFromCacheClass {
+        @Test
+        public void shouldServeRepeatedRequestFromCache() {
+            //given
+            LocalDate date = LocalDate.of(2024, 1, 2);
+            final Dispatcher dispatcher = new Dispatcher() {
+                @NotNull
+                @Override
+                public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                    return switch (Objects.requireNonNull(recordedRequest.getPath())) {
+                        case "/2024/DE" -> new MockResponse().setResponseCode(200)
+                                .setHeader("Content-Type", "application/json")
+                                .setBody(
+                                        "[\n" +
+                                                "  {\n" +
+                                                "    \"date\": \"2024-12-25\",\n" +
+                                                "    \"localName\": \"Erster Weihnachtstag\",\n" +
+                                                "    \"name\": \"Christmas Day\",\n" +
+                                                "    \"countryCode\": \"DE\"\n" +
+                                                "  }\n" +
+                                                "]");
+                        default -> new MockResponse().setResponseCode(404);
+                    };
+                }
+            };
+            mockWebServer.setDispatcher(dispatcher);
+            int requestCountBefore = mockWebServer.getRequestCount();
+            //when
+            Flux<PublicHolidayDto> firstPublicHolidayDtoFlux = publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(date, "DE");
+            Flux<PublicHolidayDto> secondPublicHolidayDtoFlux = publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(date, "DE");
+            //then
+            StepVerifier
+                    .create(firstPublicHolidayDtoFlux)
+                    .consumeNextWith(publicHolidayDto -> assertThat(publicHolidayDto.localName()).isEqualTo("Erster Weihnachtstag"))
+                    .verifyComplete();
+            StepVerifier
+                    .create(secondPublicHolidayDtoFlux)
+                    .consumeNextWith(publicHolidayDto -> assertThat(publicHolidayDto.localName()).isEqualTo("Erster Weihnachtstag"))
+                    .verifyComplete();
+            assertThat(mockWebServer.getRequestCount() - requestCountBefore).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class shouldShareConcurrentRequestsForSameCalendarClass {
+        @Test
+        public void shouldShareConcurrentRequestsForSameCalendar() {
+            //given
+            LocalDate date = LocalDate.of(2025, 1, 2);
+            final Dispatcher dispatcher = new Dispatcher() {
+                @NotNull
+                @Override
+                public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                    return switch (Objects.requireNonNull(recordedRequest.getPath())) {
+                        case "/2025/CZ" -> new MockResponse().setResponseCode(200)
+                                .setHeader("Content-Type", "application/json")
+                                .setBodyDelay(200, TimeUnit.MILLISECONDS)
+                                .setBody(
+                                        "[\n" +
+                                                "  {\n" +
+                                                "    \"date\": \"2025-12-24\",\n" +
+                                                "    \"localName\": \"Štědrý den\",\n" +
+                                                "    \"name\": \"Christmas Eve\",\n" +
+                                                "    \"countryCode\": \"CZ\"\n" +
+                                                "  }\n" +
+                                                "]");
+                        default -> new MockResponse().setResponseCode(404);
+                    };
+                }
+            };
+            mockWebServer.setDispatcher(dispatcher);
+            int requestCountBefore = mockWebServer.getRequestCount();
+            //when
+            Flux<PublicHolidayDto> publicHolidayDtoFlux = Flux.merge(
+                    publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(date, "CZ"),
+                    publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(date, "CZ"));
+            //then
+            StepVerifier
+                    .create(publicHolidayDtoFlux)
+                    .expectNextCount(2)
+                    .verifyComplete();
+            assertThat(mockWebServer.getRequestCount() - requestCountBefore).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class shouldRegisterConnectionPoolGaugesClass {
+        @Test
+        public void shouldRegisterConnectionPoolGauges() {
+            //given
+            final Dispatcher dispatcher = new Dispatcher() {
+                @NotNull
+                @Override
+                public MockResponse dispatch(@NotNull RecordedRequest recordedRequest) {
+                    return switch (Objects.requireNonNull(recordedRequest.getPath())) {
+                        case "/2026/SK" -> new MockResponse().setResponseCode(200)
+                                .setHeader("Content-Type", "application/json")
+                                .setBody(
+                                        "[\n" +
+                                                "  {\n" +
+                                                "    \"date\": \"2026-12-24\",\n" +
+                                                "    \"localName\": \"Štedrý deň\",\n" +
+                                                "    \"name\": \"Christmas Eve\",\n" +
+                                                "    \"countryCode\": \"SK\"\n" +
+                                                "  }\n" +
+                                                "]");
+                        default -> new MockResponse().setResponseCode(404);
+                    };
+                }
+            };
+            mockWebServer.setDispatcher(dispatcher);
+            //when
+            Flux<PublicHolidayDto> publicHolidayDtoFlux = publicHolidayService.getPublicHolidaysForCountryAfterGivenDate(LocalDate.of(2026, 1, 2), "SK");
+            //then
+            StepVerifier
+                    .create(publicHolidayDtoFlux)
+                    .expectNextCount(1)
+                    .verifyComplete();
+            assertThat(Metrics.globalRegistry.find("reactor.netty.connection.provider.total.connections").tag("name", "holidays-api").gauge()).isNotNull();
+            assertThat(Metrics.globalRegistry.find("reactor.netty.connection.provider.active.connections").tag("name", "holidays-api").gauge()).isNotNull();
+        }
+    }
 }
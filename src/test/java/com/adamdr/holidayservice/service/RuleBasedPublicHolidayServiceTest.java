@@ -0,0 +1,72 @@
+package com.adamdr.holidayservice.service;
+
+import com.adamdr.holidayservice.calendar.HolidayCalendar;
+import com.adamdr.holidayservice.dto.PublicHolidayDto;
+import com.adamdr.holidayservice.service.impl.RuleBasedPublicHolidayService;
+import com.adamdr.holidayservice.utils.EasterUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuleBasedPublicHolidayServiceTest {
+
+    private final RuleBasedPublicHolidayService ruleBasedPublicHolidayService =
+            new RuleBasedPublicHolidayService(new ObjectMapper(), new ClassPathResource("holiday-rules.json"));
+
+    @Test
+    public void shouldComputeWesternEaster() {
+        //then
+        assertThat(EasterUtils.easterSunday(2000)).isEqualTo(LocalDate.of(2000, 4, 23));
+        assertThat(EasterUtils.easterSunday(2023)).isEqualTo(LocalDate.of(2023, 4, 9));
+        assertThat(EasterUtils.easterSunday(2024)).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(EasterUtils.easterSunday(2038)).isEqualTo(LocalDate.of(2038, 4, 25));
+    }
+
+    @Test
+    public void shouldComputeFixedAndEasterRelativeHolidays() {
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = ruleBasedPublicHolidayService.getHolidayCalendar(2023, "PL");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.toPublicHolidays())
+                        .hasSize(13)
+                        .extracting(PublicHolidayDto::date)
+                        .contains(LocalDate.of(2023, 1, 6), LocalDate.of(2023, 4, 10), LocalDate.of(2023, 6, 8))
+                        .doesNotContain(LocalDate.of(2023, 12, 24)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldComputeNthWeekdayAndSubstituteHolidays() {
+        //when
+        Mono<HolidayCalendar> holidayCalendarMono = ruleBasedPublicHolidayService.getHolidayCalendar(2021, "US");
+        //then
+        StepVerifier
+                .create(holidayCalendarMono)
+                .consumeNextWith(holidayCalendar -> assertThat(holidayCalendar.toPublicHolidays())
+                        .extracting(PublicHolidayDto::date)
+                        .contains(LocalDate.of(2021, 5, 31), LocalDate.of(2021, 7, 5), LocalDate.of(2021, 11, 25),
+                                LocalDate.of(2021, 12, 24), LocalDate.of(2021, 12, 31))
+                        .doesNotContain(LocalDate.of(2021, 7, 4), LocalDate.of(2021, 12, 25)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldFailForCountryOrYearWithoutRules() {
+        //then
+        assertThat(ruleBasedPublicHolidayService.supports(2023, "GB")).isFalse();
+        assertThat(ruleBasedPublicHolidayService.supports(1525, "PL")).isFalse();
+        StepVerifier
+                .create(ruleBasedPublicHolidayService.getHolidayCalendar(2023, "GB"))
+                .expectError(NoSuchElementException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,46 @@
+package com.adamdr.holidayservice.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void shouldRejectOverLimit() {
+        //given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, THRESHOLD);
+        //then
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDecreaseLimitOnSlowRequestsAndIncreaseOnFastOnes() {
+        //given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 0.5, THRESHOLD);
+        //when
+        limiter.tryAcquire();
+        limiter.release(THRESHOLD * 2, false);
+        //then
+        assertThat(limiter.limit()).isEqualTo(4);
+        //when
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(THRESHOLD / 2, false);
+            limiter.release(THRESHOLD / 2, false);
+            limiter.release(THRESHOLD / 2, false);
+        }
+        //then
+        assertThat(limiter.limit()).isGreaterThan(4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
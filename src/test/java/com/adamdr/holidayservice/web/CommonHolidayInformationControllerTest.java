@@ -0,0 +1,110 @@
+package com.adamdr.holidayservice.web;
+
+import com.adamdr.holidayservice.dto.CommonHolidayDto;
+import com.adamdr.holidayservice.service.HolidayInformationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = {CommonHolidayInformationController.class})
+public class CommonHolidayInformationControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+    @MockBean
+    HolidayInformationService holidayInformationService;
+
+    private final String holidayResource = "/v2/holidays-information";
+
+    @Test
+    public void shouldReturnUnauthorized() {
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isUnauthorized();
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldReturnBadRequestForFailedValidation() {
+        //given
+        when(holidayInformationService.getCommonHolidayInformation(any(LocalDate.class), anyList()))
+                .thenReturn(Mono.error(new NoSuchElementException("Country codes validation failed")));
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-01-03&countries=PL")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldGetCommonHolidayInformationForGivenParams() {
+        //given
+        LocalDate date = LocalDate.of(2022, 1, 3);
+        when(holidayInformationService.getCommonHolidayInformation(eq(date), eq(List.of("PL", "DE", "FR"))))
+                .thenReturn(Mono.just(new CommonHolidayDto(LocalDate.of(2022, 4, 18),
+                        Map.of("PL", "Drugi Dzień Wielkanocy", "DE", "Ostermontag", "FR", "Lundi de Pâques"))));
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-01-03&countries=PL,DE,FR")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(CommonHolidayDto.class)
+                .value(commonHolidayDto -> {
+                    assertThat(commonHolidayDto.date()).isEqualTo(LocalDate.of(2022, 4, 18));
+                    assertThat(commonHolidayDto.localNames()).containsEntry("DE", "Ostermontag").hasSize(3);
+                });
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldStreamCommonHolidaysInRange() {
+        //given
+        LocalDate from = LocalDate.of(2022, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        when(holidayInformationService.getCommonHolidays(eq(from), eq(to), eq(List.of("PL", "DE"))))
+                .thenReturn(Flux.just(
+                        new CommonHolidayDto(LocalDate.of(2022, 1, 1), Map.of("PL", "Nowy Rok", "DE", "Neujahr")),
+                        new CommonHolidayDto(LocalDate.of(2023, 1, 1), Map.of("PL", "Nowy Rok", "DE", "Neujahr"))));
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "/range?from=2022-01-01&to=2023-12-31&countries=PL,DE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(CommonHolidayDto.class)
+                .value(commonHolidayDtos -> assertThat(commonHolidayDtos)
+                        .extracting(CommonHolidayDto::date)
+                        .containsExactly(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1)));
+    }
+}
@@ -1,10 +1,12 @@
 package com.adamdr.holidayservice.web;
 
+import com.adamdr.holidayservice.dto.AccessTokenDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -13,7 +15,7 @@ import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = {"holidaysSecurity.tokenEnabled=true", "holidaysSecurity.tokenSecret=test-secret"})
 @AutoConfigureWebTestClient
 public class HolidayInformationControllerIntegrationTest {
 
@@ -169,4 +171,35 @@ public class HolidayInformationControllerIntegrationTest {
                     assertThat(holidayDto.name2()).isEqualTo("Drugi Dzień Wielkanocy");
                 });
     }
+
+    @Test
+    public void shouldAuthenticateWithTokenExchangedForBasicCredentials() {
+        //given
+        AccessTokenDto accessToken = webTestClient
+                .post()
+                .uri("/v1/auth/token")
+                .headers(headers -> headers.setBasicAuth("swagger-ui", "swagger-ui"))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(AccessTokenDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(accessToken).isNotNull();
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-05-12&firstCountryCode=POL&secondCountryCode=GB")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken.accessToken())
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-05-12&firstCountryCode=POL&secondCountryCode=GB")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken.accessToken() + "x")
+                .exchange()
+                .expectStatus()
+                .isUnauthorized();
+    }
 }
@@ -1,24 +1,42 @@
 package com.adamdr.holidayservice.web;
 
+import com.adamdr.holidayservice.cache.HolidayAnswerCache;
+import com.adamdr.holidayservice.dto.HolidayBatchResultDto;
 import com.adamdr.holidayservice.dto.HolidayDto;
+import com.adamdr.holidayservice.dto.HolidayQueryDto;
 import com.adamdr.holidayservice.service.HolidayInformationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 @WebFluxTest(controllers = {HolidayInformationController.class})
+@Import(HolidayAnswerCache.class)
 public class HolidayInformationControllerTest {
 
     @Autowired
@@ -106,4 +124,180 @@ public class HolidayInformationControllerTest {
                     assertThat(holidayDto.name2()).isEqualTo("Easter Monday");
                 });
     }
+
+    @Test
+    @WithMockUser
+    public void shouldGetHolidayInformationAsCbor() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(LocalDate.class), anyString(), anyString()))
+                .thenReturn(Mono.just(new HolidayDto(LocalDate.of(2022, 4, 18), "Drugi Dzień Wielkanocy", "Easter Monday")));
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-01-03&firstCountryCode=PL&secondCountryCode=AT")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .value(body -> {
+                    JsonNode holiday = readCbor(body).get(0);
+                    assertThat(holiday.get("date").asText()).isEqualTo("2022-04-18");
+                    assertThat(holiday.get("name2").asText()).isEqualTo("Easter Monday");
+                });
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldAnswerDatesWithinCachedIntervalAndReversedPairWithoutRecomputing() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(LocalDate.class), anyString(), anyString()))
+                .thenReturn(Mono.just(new HolidayDto(LocalDate.of(2022, 5, 1), "Fête du Travail", "Tag der Arbeit")));
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-04-20&firstCountryCode=DE&secondCountryCode=FR")
+                .exchange()
+                .expectStatus()
+                .isOk();
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-04-25&firstCountryCode=FR&secondCountryCode=DE")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(HolidayDto.class)
+                .value(holidayDto -> {
+                    assertThat(holidayDto.date()).isEqualTo(LocalDate.of(2022, 5, 1));
+                    assertThat(holidayDto.name1()).isEqualTo("Tag der Arbeit");
+                    assertThat(holidayDto.name2()).isEqualTo("Fête du Travail");
+                });
+        verify(holidayInformationService, times(1)).getHolidayInformation(any(LocalDate.class), anyString(), anyString());
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldReturnNotModifiedForMatchingETag() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(LocalDate.class), anyString(), anyString()))
+                .thenReturn(Mono.just(new HolidayDto(LocalDate.of(2022, 12, 25), "Christmas Day", "Kerstmis")));
+        String eTag = webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-12-01&firstCountryCode=GB&secondCountryCode=NL")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .returnResult(HolidayDto.class)
+                .getResponseHeaders()
+                .getETag();
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-12-01&firstCountryCode=GB&secondCountryCode=NL")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified()
+                .expectBody()
+                .isEmpty();
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldReturnNotModifiedForWeakETagInList() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(LocalDate.class), anyString(), anyString()))
+                .thenReturn(Mono.just(new HolidayDto(LocalDate.of(2022, 12, 26), "Boxing Day", "Tweede Kerstdag")));
+        String eTag = webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-12-01&firstCountryCode=IE&secondCountryCode=NL")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(HolidayDto.class)
+                .getResponseHeaders()
+                .getETag();
+        //then
+        webTestClient
+                .get()
+                .uri(holidayResource + "?date=2022-12-01&firstCountryCode=IE&secondCountryCode=NL")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + eTag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+        assertThat(eTag).startsWith("W/\"");
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldStreamBatchResultsAsNdjson() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(Flux.class)))
+                .thenReturn(Flux.just(
+                        new HolidayBatchResultDto(0, new HolidayDto(LocalDate.of(2022, 4, 18), "Drugi Dzień Wielkanocy", "Easter Monday"), null),
+                        new HolidayBatchResultDto(1, null, "Country codes validation failed")));
+        //then
+        webTestClient
+                .mutateWith(csrf())
+                .post()
+                .uri(holidayResource + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(List.of(
+                        new HolidayQueryDto(LocalDate.of(2022, 1, 3), "PL", "GB"),
+                        new HolidayQueryDto(LocalDate.of(2022, 1, 3), "POL", "GB")))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(HolidayBatchResultDto.class)
+                .value(holidayBatchResultDtos -> {
+                    assertThat(holidayBatchResultDtos).extracting(HolidayBatchResultDto::index).containsExactly(0L, 1L);
+                    assertThat(holidayBatchResultDtos.get(0).holiday().name2()).isEqualTo("Easter Monday");
+                    assertThat(holidayBatchResultDtos.get(1).error()).isEqualTo("Country codes validation failed");
+                });
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldStreamBatchResultsAsCborSequence() {
+        //given
+        when(holidayInformationService.getHolidayInformation(any(Flux.class)))
+                .thenReturn(Flux.just(
+                        new HolidayBatchResultDto(0, new HolidayDto(LocalDate.of(2022, 4, 18), "Drugi Dzień Wielkanocy", "Easter Monday"), null),
+                        new HolidayBatchResultDto(1, null, "Country codes validation failed")));
+        //then
+        webTestClient
+                .mutateWith(csrf())
+                .post()
+                .uri(holidayResource + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(BinaryMediaTypes.APPLICATION_CBOR_SEQ)
+                .bodyValue(List.of(new HolidayQueryDto(LocalDate.of(2022, 1, 3), "PL", "GB")))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentTypeCompatibleWith(BinaryMediaTypes.APPLICATION_CBOR_SEQ)
+                .expectBody(byte[].class)
+                .value(body -> {
+                    List<JsonNode> results = readCbor(body);
+                    assertThat(results).hasSize(2);
+                    assertThat(results.get(0).get("holiday").get("date").asText()).isEqualTo("2022-04-18");
+                    assertThat(results.get(1).get("error").asText()).isEqualTo("Country codes validation failed");
+                });
+    }
+
+    private static List<JsonNode> readCbor(byte[] body) {
+        try {
+            return new ObjectMapper(new CBORFactory()).readerFor(JsonNode.class).<JsonNode>readValues(body).readAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.adamdr.holidayservice.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadSheddingWebFilterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 0.5, TimeUnit.SECONDS.toNanos(1));
+    private final LoadSheddingWebFilter loadSheddingWebFilter = new LoadSheddingWebFilter(limiter, 0, Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+    @Test
+    public void shouldBackOffOnServerErrorResponse() {
+        //given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/holidays-information"));
+        //when
+        Mono<Void> response = loadSheddingWebFilter.filter(exchange, filteredExchange -> {
+            filteredExchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return filteredExchange.getResponse().setComplete();
+        });
+        //then
+        StepVerifier.create(response).verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    public void shouldNotBackOffOnClientErrorResponse() {
+        //given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/holidays-information"));
+        //when
+        Mono<Void> response = loadSheddingWebFilter.filter(exchange, filteredExchange -> {
+            filteredExchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return filteredExchange.getResponse().setComplete();
+        });
+        //then
+        StepVerifier.create(response).verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+}
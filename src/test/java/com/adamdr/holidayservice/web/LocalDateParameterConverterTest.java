@@ -0,0 +1,49 @@
+package com.adamdr.holidayservice.web;
+
+import com.adamdr.holidayservice.web.LocalDateParameterConverter.AmbiguousDatePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocalDateParameterConverterTest {
+
+    private final LocalDateParameterConverter converter = new LocalDateParameterConverter(AmbiguousDatePolicy.MONTH_FIRST);
+
+    @Test
+    public void shouldParseEverySupportedFormat() {
+        //then
+        assertThat(converter.convert("2023-05-21")).isEqualTo(LocalDate.of(2023, 5, 21));
+        assertThat(converter.convert("2023/05/21")).isEqualTo(LocalDate.of(2023, 5, 21));
+        assertThat(converter.convert("21.05.2023")).isEqualTo(LocalDate.of(2023, 5, 21));
+        assertThat(converter.convert("05/21/2023")).isEqualTo(LocalDate.of(2023, 5, 21));
+        assertThat(converter.convert("21/05/2023")).isEqualTo(LocalDate.of(2023, 5, 21));
+    }
+
+    @Test
+    public void shouldResolveAmbiguousDateByPolicy() {
+        //given
+        LocalDateParameterConverter dayFirstConverter = new LocalDateParameterConverter(AmbiguousDatePolicy.DAY_FIRST);
+        LocalDateParameterConverter rejectingConverter = new LocalDateParameterConverter(AmbiguousDatePolicy.REJECT);
+        //then
+        assertThat(converter.convert("03/04/2024")).isEqualTo(LocalDate.of(2024, 3, 4));
+        assertThat(dayFirstConverter.convert("03/04/2024")).isEqualTo(LocalDate.of(2024, 4, 3));
+        assertThat(rejectingConverter.convert("04/04/2024")).isEqualTo(LocalDate.of(2024, 4, 4));
+        assertThat(rejectingConverter.convert("13/04/2024")).isEqualTo(LocalDate.of(2024, 4, 13));
+        assertThatThrownBy(() -> rejectingConverter.convert("03/04/2024")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldRejectInvalidDates() {
+        //then
+        assertThat(converter.convert("2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThatThrownBy(() -> converter.convert("2023-02-29")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convert("2022-MAY-21")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convert("2022-05-1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convert("2022.05.21")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convert("13/13/2022")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convert("2022-05/21")).isInstanceOf(IllegalArgumentException.class);
+    }
+}